@@ -0,0 +1,147 @@
+package Bench;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+// Mini arnés de microbenchmarks: iteraciones de calentamiento y de medición
+// (como JMH), reportando throughput y asignación de memoria por operación a
+// partir de los bytes asignados por cada hilo (como el perfilador gc de JMH).
+// Para mediciones finas está el módulo JMH (perfil jmh del pom.xml).
+//
+// Cada benchmark corre en su propia JVM (como los forks de JMH), así el sitio
+// de llamada a op.run() solo ve una implementación y no arrastra el perfil de
+// los benchmarks anteriores. Con -Dharness.fork=false corre todo en este proceso.
+//
+// El resultado de cada operación se consume con una comparación contra un
+// campo volatile (como el Blackhole de JMH) para que el JIT no la elimine.
+final class Harness {
+    interface Op { Object run() throws Throwable; }
+
+    // Índice del benchmark que corre este proceso hijo (-1 = proceso principal)
+    private static final int ONLY = Integer.getInteger("harness.only", -1);
+    private static final boolean FORK = Boolean.parseBoolean(System.getProperty("harness.fork", "true"));
+
+    private static final String RESULT = "@resultado ";
+
+    private static volatile Object trap = new Object();
+    private static volatile Object sink;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final int warmups, iterations;
+    private final long iterationMillis;
+    // Consola original, por si el benchmark redirige System.out
+    private final java.io.PrintStream out = System.out;
+    // Clase y argumentos con que se relanza cada benchmark en su JVM
+    private final Class<?> main;
+    private final String[] args;
+    private int next = 0;
+
+    Harness(int warmups, int iterations, long iterationMillis, Class<?> main, String[] args) {
+        this.warmups = warmups;
+        this.iterations = iterations;
+        this.iterationMillis = iterationMillis;
+        this.main = main;
+        this.args = args;
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    void header() {
+        if (ONLY >= 0) return;
+        out.printf("%-28s %-22s %8s %14s %10s %10s%n",
+                "benchmark", "parámetros", "hilos", "ops/s", "B/op", "MB/s");
+    }
+
+    // Corre op en `threads` hilos; cada hilo tiene su propia Op (estado por hilo)
+    void run(String name, String params, int threads, java.util.function.IntFunction<Op> perThread) throws Exception {
+        int index = next++;
+        if (ONLY < 0 && FORK) {
+            fork(index);
+            return;
+        }
+        if (ONLY >= 0 && index != ONLY) return;
+        for (int i = 0; i < warmups; i++) iteration(threads, perThread);
+        double opsSum = 0, bytesSum = 0, secsSum = 0;
+        for (int i = 0; i < iterations; i++) {
+            double[] r = iteration(threads, perThread);
+            opsSum += r[0];
+            bytesSum += r[1];
+            secsSum += r[2];
+        }
+        // El hijo marca su línea de resultado; el resto de su salida (preparación) no se repite
+        out.printf((ONLY >= 0 ? RESULT : "") + "%-28s %-22s %8d %14.0f %10.1f %10.1f%n", name, params, threads,
+                opsSum / secsSum, bytesSum / Math.max(1, opsSum), bytesSum / secsSum / (1024 * 1024));
+        if (ONLY >= 0) {
+            // El hijo ya midió lo suyo: no arma los benchmarks que siguen
+            out.flush();
+            System.exit(0);
+        }
+    }
+
+    // Misma clase, argumentos y opciones de JVM, pero solo el benchmark `index`
+    private void fork(int index) throws Exception {
+        List<String> cmd = new ArrayList<>();
+        cmd.add(java.nio.file.Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        cmd.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        cmd.add("-Dharness.only=" + index);
+        cmd.add("-cp");
+        cmd.add(System.getProperty("java.class.path"));
+        cmd.add(main.getName());
+        cmd.addAll(List.of(args));
+        Process child = new ProcessBuilder(cmd).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        try (java.io.BufferedReader r = new java.io.BufferedReader(new java.io.InputStreamReader(child.getInputStream()))) {
+            for (String line = r.readLine(); line != null; line = r.readLine()) {
+                if (line.startsWith(RESULT)) out.println(line.substring(RESULT.length()));
+            }
+        }
+        int code = child.waitFor();
+        if (code != 0) throw new IllegalStateException("El benchmark " + index + " terminó con código " + code);
+    }
+
+    private volatile boolean stop;
+
+    // {operaciones, bytes asignados, segundos}
+    private double[] iteration(int threads, java.util.function.IntFunction<Op> perThread) throws Exception {
+        LongAdder ops = new LongAdder();
+        LongAdder bytes = new LongAdder();
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Thread> ts = new ArrayList<>();
+        stop = false;
+        for (int t = 0; t < threads; t++) {
+            Op op = perThread.apply(t);
+            Thread th = new Thread(() -> {
+                try {
+                    ready.countDown();
+                    go.await();
+                    long id = Thread.currentThread().getId();
+                    long b0 = THREADS.getThreadAllocatedBytes(id);
+                    long n = 0;
+                    while (!stop) {
+                        Object r = op.run();
+                        if (r == trap) sink = r;
+                        n++;
+                    }
+                    bytes.add(THREADS.getThreadAllocatedBytes(id) - b0);
+                    ops.add(n);
+                } catch (Throwable e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            ts.add(th);
+            th.start();
+        }
+        ready.await();
+        long t0 = System.nanoTime();
+        go.countDown();
+        Thread.sleep(iterationMillis);
+        stop = true;
+        for (Thread th : ts) th.join();
+        double secs = (System.nanoTime() - t0) / 1e9;
+        return new double[] { ops.sum(), bytes.sum(), secs };
+    }
+}
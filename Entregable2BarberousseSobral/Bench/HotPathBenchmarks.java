@@ -0,0 +1,121 @@
+package Bench;
+
+import Objects.*;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Benchmarks de los caminos calientes:
+//   - PathPlanner.planCells con dado 1..6 en tableros 10x10, 50x50 y 1000x1000
+//   - Board.movePlayerSafe con 1, 4 y 64 hilos compitiendo
+//   - Board.randomFreeCell con 10%, 50% y 95% del tablero ocupado
+//   - Board.snapshotWithColors + Main.printBoard (salida descartada)
+// Uso: java Bench.HotPathBenchmarks [ms por iteración]
+public class HotPathBenchmarks {
+    private static final int[][] DIRS = { {-1,0},{0,1},{1,0},{0,-1} };
+
+    public static void main(String[] args) throws Exception {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+        Harness h = new Harness(2, 3, millis, HotPathBenchmarks.class, args);
+        h.header();
+        planner(h);
+        moves(h);
+        freeCells(h);
+        render(h);
+    }
+
+    // Tablero con 1 jugador cada 25 celdas y boosters hasta los objetivos
+    private static Board populated(int n, List<Player> players) {
+        Board board = new Board(n, n);
+        board.setTargetHeals(n * n / 10);
+        int count = Math.max(1, n * n / 25);
+        for (int i = 1; i <= count; i++) {
+            Player p = new Player("B" + i, i, board, 1, 0, 0);
+            board.placePlayerAtRandom(p);
+            players.add(p);
+        }
+        while (board.tryPlaceCoin(5)) {}
+        while (board.tryPlaceHeal()) {}
+        while (board.tryPlaceTrap()) {}
+        return board;
+    }
+
+    private static void planner(Harness h) throws Exception {
+        for (int n : new int[] { 10, 50, 1000 }) {
+            List<Player> players = new ArrayList<>();
+            Board board = populated(n, players);
+            Player p = players.get(0);
+            for (int dice = 1; dice <= 6; dice++) {
+                int steps = dice;
+                h.run("PathPlanner.planCells", n + "x" + n + " dado=" + dice, 1, t -> {
+                    PathPlanner planner = new PathPlanner();
+                    int[] out = new int[7];
+                    Random rnd = new Random(1);
+                    return () -> planner.planCells(p.row(), p.col(), board, steps, out, rnd);
+                });
+            }
+        }
+    }
+
+    private static void moves(Harness h) throws Exception {
+        for (int threads : new int[] { 1, 4, 64 }) {
+            int side = Math.max(8, (int) Math.ceil(Math.sqrt(threads * 4.0)));
+            Board board = new Board(side, side);
+            List<Player> players = new ArrayList<>();
+            for (int i = 1; i <= threads; i++) {
+                Player p = new Player("M" + i, i, board, 1, 0, 0);
+                board.placePlayerAtRandom(p);
+                players.add(p);
+            }
+            h.run("Board.movePlayerSafe", side + "x" + side, threads, t -> {
+                Player p = players.get(t);
+                return () -> {
+                    int[] d = DIRS[ThreadLocalRandom.current().nextInt(4)];
+                    return board.movePlayerSafe(p.row(), p.col(), p.row() + d[0], p.col() + d[1], p);
+                };
+            });
+        }
+    }
+
+    private static void freeCells(Harness h) throws Exception {
+        int n = 200;
+        for (int pct : new int[] { 10, 50, 95 }) {
+            Board board = new Board(n, n);
+            int count = n * n * pct / 100;
+            for (int i = 1; i <= count; i++) {
+                board.placePlayerAtRandom(new Player("F" + i, i, board, 1, 0, 0));
+            }
+            h.run("Board.randomFreeCell", n + "x" + n + " ocupado=" + pct + "%", 1, t -> board::randomFreeCell);
+        }
+    }
+
+    private static void render(Harness h) throws Exception {
+        // Main está en el paquete por defecto: se llega por reflexión
+        Method m = Class.forName("Main").getDeclaredMethod("printBoard", Board.class);
+        m.setAccessible(true);
+        MethodHandle printBoard = MethodHandles.lookup().unreflect(m)
+                .asType(MethodType.methodType(void.class, Board.class));
+
+        PrintStream console = System.out;
+        for (int n : new int[] { 10, 50 }) {
+            Board board = populated(n, new ArrayList<>());
+            PrintStream sink = new PrintStream(OutputStream.nullOutputStream());
+            System.setOut(sink);
+            try {
+                h.run("snapshot+printBoard", n + "x" + n, 1, t -> () -> {
+                    printBoard.invokeExact(board);
+                    return board;
+                });
+            } finally {
+                System.setOut(console);
+            }
+        }
+    }
+}
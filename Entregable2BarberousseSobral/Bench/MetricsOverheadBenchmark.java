@@ -0,0 +1,77 @@
+package Bench;
+
+import Objects.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Costo de medir: los mismos caminos calientes con y sin GameMetrics colgado del tablero
+//   - Board.movePlayerSafe con 1 y 4 hilos
+//   - PathPlanner.planCells con dado 3 y 6 en 50x50
+//   - Board.randomFreeCell con el 50% ocupado
+// Uso: java Bench.MetricsOverheadBenchmark [ms por iteración]
+public class MetricsOverheadBenchmark {
+    private static final int[][] DIRS = { {-1,0},{0,1},{1,0},{0,-1} };
+
+    public static void main(String[] args) throws Exception {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+        Harness h = new Harness(2, 3, millis, MetricsOverheadBenchmark.class, args);
+        h.header();
+        for (boolean on : new boolean[] { false, true }) {
+            String tag = on ? "metricas=si" : "metricas=no";
+            moves(h, on, tag);
+            planner(h, on, tag);
+            freeCells(h, on, tag);
+        }
+    }
+
+    private static Board board(int n, boolean on) {
+        Board board = new Board(n, n);
+        if (on) board.recordMetrics(new GameMetrics());
+        return board;
+    }
+
+    private static void moves(Harness h, boolean on, String tag) throws Exception {
+        for (int threads : new int[] { 1, 4 }) {
+            Board board = board(8, on);
+            List<Player> players = new ArrayList<>();
+            for (int i = 1; i <= threads; i++) {
+                Player p = new Player("M" + i, i, board, 1, 0, 0);
+                board.placePlayerAtRandom(p);
+                players.add(p);
+            }
+            h.run("Board.movePlayerSafe", tag, threads, t -> {
+                Player p = players.get(t);
+                return () -> {
+                    int[] d = DIRS[ThreadLocalRandom.current().nextInt(4)];
+                    return board.movePlayerSafe(p.row(), p.col(), p.row() + d[0], p.col() + d[1], p);
+                };
+            });
+        }
+    }
+
+    private static void planner(Harness h, boolean on, String tag) throws Exception {
+        Board board = board(50, on);
+        board.setTargetHeals(250);
+        Player p = new Player("P", 1, board, 1, 0, 0);
+        board.placePlayerAtRandom(p);
+        while (board.tryPlaceCoin(5)) {}
+        while (board.tryPlaceHeal()) {}
+        for (int dice : new int[] { 3, 6 }) {
+            h.run("PathPlanner.planCells", tag + " dado=" + dice, 1, t -> {
+                PathPlanner planner = new PathPlanner();
+                int[] out = new int[7];
+                Random rnd = new Random(1);
+                return () -> planner.planCells(p.row(), p.col(), board, dice, out, rnd);
+            });
+        }
+    }
+
+    private static void freeCells(Harness h, boolean on, String tag) throws Exception {
+        int n = 200;
+        Board board = board(n, on);
+        for (int i = 1; i <= n * n / 2; i++) board.placePlayerAtRandom(new Player("F" + i, i, board, 1, 0, 0));
+        h.run("Board.randomFreeCell", tag, 1, t -> board::randomFreeCell);
+    }
+}
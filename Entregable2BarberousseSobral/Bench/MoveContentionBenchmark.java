@@ -0,0 +1,80 @@
+package Bench;
+
+import Objects.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+// Compara movePlayerSafe con locks y con CAS bajo contención.
+// Uso: java Bench.MoveContentionBenchmark [segundos por caso]
+public class MoveContentionBenchmark {
+    private static final int[] PLAYERS = { 4, 64, 1024 };
+    private static final int[][] DIRS = { {-1,0},{0,1},{1,0},{0,-1} };
+
+    private static volatile boolean stop;
+
+    public static void main(String[] args) throws Exception {
+        long millis = (args.length > 0 ? Long.parseLong(args[0]) : 3) * 1000L;
+
+        BoardConfig[] modes = {
+            BoardConfig.defaults(),
+            BoardConfig.defaults().withStorage(BoardConfig.Storage.PACKED).withLockStripes(256),
+            BoardConfig.defaults().withStorage(BoardConfig.Storage.PACKED).withLockFreeMoves(true),
+        };
+        String[] names = { "locks por celda", "256 stripes", "CAS" };
+
+        System.out.printf("%-16s %8s %14s %14s%n", "modo", "jugadores", "intentos/s", "movidas/s");
+        for (int m = 0; m < modes.length; m++) {
+            for (int n : PLAYERS) {
+                run(names[m], modes[m], n, millis);
+            }
+        }
+    }
+
+    private static void run(String name, BoardConfig config, int n, long millis) throws InterruptedException {
+        // Tablero con ~25% de ocupación para que haya choques reales
+        int side = Math.max(8, (int) Math.ceil(Math.sqrt(n * 4.0)));
+        Board board = new Board(side, side, config);
+        List<Player> players = new ArrayList<>();
+        for (int i = 1; i <= n; i++) {
+            Player p = new Player("B" + i, i, board, 1, 0, 0);
+            board.placePlayerAtRandom(p);
+            players.add(p);
+        }
+
+        LongAdder attempts = new LongAdder();
+        LongAdder moves = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        stop = false;
+        List<Thread> threads = new ArrayList<>();
+        for (Player p : players) {
+            Thread t = new Thread(() -> {
+                try { start.await(); } catch (InterruptedException e) { return; }
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                long a = 0, ok = 0;
+                while (!stop) {
+                    int[] d = DIRS[rnd.nextInt(4)];
+                    int r = p.row(), c = p.col();
+                    board.movePlayerSafe(r, c, r + d[0], c + d[1], p);
+                    a++;
+                    if (p.row() != r || p.col() != c) ok++;
+                }
+                attempts.add(a);
+                moves.add(ok);
+            });
+            threads.add(t);
+            t.start();
+        }
+
+        long t0 = System.nanoTime();
+        start.countDown();
+        Thread.sleep(millis);
+        stop = true;
+        for (Thread t : threads) t.join();
+        double secs = (System.nanoTime() - t0) / 1e9;
+
+        System.out.printf("%-16s %8d %14.0f %14.0f%n", name, n, attempts.sum() / secs, moves.sum() / secs);
+    }
+}
@@ -0,0 +1,67 @@
+package Bench;
+
+import Objects.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Reproduce una partida grabada (GameJournal) contra distintas configuraciones
+// de Board, con y sin PathPlanner, como carga de trabajo con forma de partida real.
+// Sin carpeta de diario graba antes una simulación de 50x50 con 20 jugadores.
+// Uso: java Bench.ReplayBenchmark [carpeta del diario] [ms por iteración]
+public class ReplayBenchmark {
+    public static void main(String[] args) throws Exception {
+        Path dir = args.length > 0 && !args[0].isEmpty() ? Path.of(args[0]) : record();
+        long millis = args.length > 1 ? Long.parseLong(args[1]) : 1000;
+        Replay replay = Replay.load(dir);
+
+        Replay.Result check = replay.run(BoardConfig.defaults());
+        System.out.printf("Diario %s: %dx%d, %d operaciones, %s (%d divergencias, %d resultados distintos)%n",
+                dir, replay.rows(), replay.cols(), replay.operations(),
+                check.matches() ? "reproduce el resultado" : "NO reproduce el resultado",
+                check.diverged(), check.mismatches());
+
+        BoardConfig[] configs = {
+            BoardConfig.defaults(),
+            BoardConfig.defaults().withLockStripes(64),
+            BoardConfig.defaults().withStorage(BoardConfig.Storage.PACKED),
+            BoardConfig.defaults().withStorage(BoardConfig.Storage.PACKED).withLockFreeMoves(true),
+        };
+        Harness h = new Harness(2, 3, millis, ReplayBenchmark.class, args);
+        h.header();
+        for (BoardConfig config : configs) {
+            String params = config.storage() + (config.lockFreeMoves() ? " cas"
+                    : config.lockStripes() > 0 ? " stripes=" + config.lockStripes() : "");
+            h.run("Replay.run", params, 1, t -> () -> replay.run(config));
+            h.run("Replay.run+PathPlanner", params, 1, t -> {
+                PathPlanner planner = new PathPlanner();
+                return () -> replay.run(new Board(replay.rows(), replay.cols(), config), planner);
+            });
+        }
+    }
+
+    private static Path record() throws Exception {
+        Path dir = Files.createTempDirectory("replay");
+        Board board = new Board(50, 50);
+        board.setTargetHeals(250);
+        EventBus bus = new EventBus(4096, EventBus.Backpressure.BLOCK);
+        GameJournal journal = new GameJournal(dir, board);
+        bus.subscribe("Diario", journal);
+        board.publishTo(bus);
+
+        Simulation sim = new Simulation(board, 42);
+        for (int i = 1; i <= 20; i++) {
+            Player p = new Player("Jugador" + i, i, board, 3, 350, 550);
+            board.placePlayerAtRandom(p);
+            sim.addPlayer(p);
+        }
+        sim.addRobot(new Robot(board, Booster.COIN, 200, 400));
+        sim.addRobot(new Robot(board, Booster.HEAL, 300, 500));
+        sim.addRobot(new Robot(board, Booster.POISON, 400, 600));
+        sim.run(300_000);
+
+        bus.close(5000);
+        for (Player p : sim.players()) journal.result(p);
+        journal.close();
+        return dir;
+    }
+}
@@ -0,0 +1,87 @@
+package Bench;
+
+import Objects.*;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+// Movidas por segundo y RSS con 10, 1k, 10k y 100k jugadores reales (Player.run,
+// con sus Thread.sleep), en hilos virtuales o de plataforma.
+// Uso: java Bench.VirtualThreadScaling [virtual|platform] [segundos por caso] [max jugadores]
+// Con -Djdk.tracePinnedThreads=full el JDK avisa si algún hilo virtual queda fijado.
+public class VirtualThreadScaling {
+    private static final int[] PLAYERS = { 10, 1_000, 10_000, 100_000 };
+
+    public static void main(String[] args) throws Exception {
+        boolean wantVirtual = args.length == 0 || args[0].equals("virtual");
+        long millis = (args.length > 1 ? Long.parseLong(args[1]) : 10) * 1000L;
+        int max = args.length > 2 ? Integer.parseInt(args[2]) : Integer.MAX_VALUE;
+
+        boolean virtual = GameThreads.useVirtualThreads(wantVirtual);
+        PrintStream console = System.out;
+        console.printf("Java %s, hilos %s%n", System.getProperty("java.version"), virtual ? "virtuales" : "de plataforma");
+        console.printf("%10s %14s %12s%n", "jugadores", "movidas/s", "RSS (MB)");
+
+        for (int n : PLAYERS) {
+            if (n > max) break;
+            // Los jugadores imprimen cada booster; no medimos la consola
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            double rate;
+            try {
+                rate = run(n, millis);
+            } finally {
+                System.setOut(console);
+            }
+            console.printf("%10d %14.0f %12d%n", n, rate, rssMb());
+        }
+    }
+
+    private static double run(int n, long millis) throws InterruptedException {
+        // ~25% de ocupación
+        int side = Math.max(10, (int) Math.ceil(Math.sqrt(n * 4.0)));
+        Board board = new Board(side, side, BoardConfig.defaults()
+                .withStorage(BoardConfig.Storage.PACKED).withLockStripes(4096));
+        board.setTargetHeals(side * side / 10);
+
+        List<Player> players = new ArrayList<>(n);
+        List<Thread> threads = new ArrayList<>(n + 3);
+        for (int i = 1; i <= n; i++) {
+            Player p = new Player("J" + i, i, board, Integer.MAX_VALUE / 2, 350, 550);
+            board.placePlayerAtRandom(p);
+            players.add(p);
+            threads.add(GameThreads.newThread(p, "Player-" + i));
+        }
+        threads.add(GameThreads.newThread(new Robot(board, Booster.COIN, 10, 20), "RobotMonedas"));
+        threads.add(GameThreads.newThread(new Robot(board, Booster.HEAL, 10, 20), "RobotVidas"));
+        threads.add(GameThreads.newThread(new Robot(board, Booster.POISON, 10, 20), "RobotMalo"));
+
+        for (Thread t : threads) t.start();
+        // Medimos después del arranque
+        Thread.sleep(Math.min(2000, millis / 4));
+        long m0 = board.successfulMoves();
+        long t0 = System.nanoTime();
+        Thread.sleep(millis);
+        double rate = (board.successfulMoves() - m0) / ((System.nanoTime() - t0) / 1e9);
+
+        for (Player p : players) p.stopGracefully();
+        for (Thread t : threads) t.interrupt();
+        for (Thread t : threads) t.join();
+        return rate;
+    }
+
+    private static long rssMb() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", "")) / 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException ignored) {}
+        Runtime rt = Runtime.getRuntime();
+        return (rt.totalMemory() - rt.freeMemory()) / (1024 * 1024);
+    }
+}
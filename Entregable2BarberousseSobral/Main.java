@@ -1,9 +1,136 @@
 import Objects.*;
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.*;
 
 public class Main {
 
+    static BoardConfig boardConfig = BoardConfig.defaults();
+
+    // Partida sin consola ni hilos, con reloj virtual (--headless)
+    static boolean headless = false;
+    // Con --phased la simulación planea en paralelo y mueve en orden fijo (PhasedSimulation)
+    static boolean phased = false;
+    static long seed = System.nanoTime();
+    static int headlessN = 10, headlessT = 60, headlessM = 3;
+
+    // Torneo por lotes sobre una grilla de parámetros (--batch=grilla.txt)
+    static String batchGrid = null;
+    static String batchOut = null;
+    static int batchThreads = Runtime.getRuntime().availableProcessors();
+
+    // Dibujo incremental del tablero (--render=diff)
+    static boolean diffRender = false;
+
+    // Qué hace el bus de eventos cuando se llena (--events=drop|block|sample)
+    static EventBus.Backpressure eventBackpressure = EventBus.Backpressure.DROP;
+    static final int EVENT_CAPACITY = 4096;
+    // Bus de la consola; con --journal es otro que el del tablero (ver newEventBus)
+    static EventBus consoleBus = null;
+
+    // Diario binario de cada partida (--journal=carpeta), una subcarpeta por partida
+    static String journalDir = null;
+    static GameJournal journal = null;
+
+    // Reproduce un diario y verifica el resultado (--replay=carpeta)
+    static String replayDir = null;
+
+    // Checkpoint de la última partida, tomado con los jugadores ya detenidos (el
+    // mismo estado que el ranking). Es siempre el mismo archivo: cada partida lo
+    // pisa y "continuar" lo borra al retomarlo. --resume=archivo.ckpt arranca
+    // directamente desde uno.
+    static final java.nio.file.Path CHECKPOINT_FILE = java.nio.file.Path.of("partida.ckpt");
+    static java.nio.file.Path lastCheckpoint = null;
+    static String resumeFile = null;
+
+    // Resultados de todas las partidas (--results=archivo) y consultas sobre ellos
+    static String resultsFile = "resultados.db";
+    // Se abre una sola vez por proceso (abrirlo relee todo el archivo) y se cierra al salir
+    static ResultsStore results = null;
+    static String importDir = null;
+    static String leaderboard = null;
+    static String historyOf = null;
+
+    // Muchas partidas a la vez en un GameHost (--host=K, con --threads, --n, --t y --m)
+    static int hostSessions = 0;
+
+    // Métricas del motor por partida, publicadas por JMX (--metrics=off las apaga)
+    static boolean metricsEnabled = true;
+
+    // Servidor de espectadores en localhost (--spectators=puerto) y cliente (--watch=puerto)
+    static int spectatorPort = -1;
+    static int watchPort = -1;
+
+    // Modo multitud: M jugadores en arreglos primitivos (--crowd=M)
+    static int crowdPlayers = 0;
+    // Con --shards=K la multitud corre sobre un ShardedBoard de K tiles, un hilo por tile
+    static int shards = 0;
+
+    // Opciones de línea de comandos: --storage=cells|packed --stripes=N (0 = automático)
+    // --lockfree (movimientos con CAS, implica --storage=packed)
+    // --virtual (jugadores y robots en hilos virtuales, Java 21+)
+    // --headless [--seed=S --n=N --t=T --m=M] (simulación con reloj virtual, sin esperas)
+    // --phased [--threads=K] (con --headless: planes en paralelo por tick, mismo resultado con cualquier K)
+    // --batch=grilla.txt [--out=archivo.csv --threads=K] (torneo en paralelo, ver Tournament)
+    // --render=full|diff (diff: solo redibuja las celdas que cambiaron)
+    // --events=drop|block|sample (bus de eventos lleno: descartar, esperar o muestrear)
+    // --journal=carpeta (diario binario de cada partida, en un bus propio que espera lugar; --events sigue valiendo para la consola.
+    //                   Con un jugador moviéndose sin pausa cuesta ~10% de los movimientos por segundo; con las pausas normales, nada)
+    // --replay=carpeta/partida_... (reproduce un diario sin esperas y compara con el resultado grabado)
+    // --resume=partida.ckpt [--t=T] (retoma una partida guardada con los robots por defecto; el archivo se borra al retomarla)
+    // --results=archivo (resultados de todas las partidas, por defecto resultados.db)
+    // --import=carpeta (agrega los partida_*.txt viejos) --leaderboard[=coins|wins|winrate|games] --history=nombre
+    // --metrics=on|off (contadores e histogramas por JMX, Entregable:type=GameMetrics)
+    // --host=K [--threads=H --n=N --t=T --m=M] (K partidas simultáneas en tiempo real sobre H hilos)
+    // --spectators=puerto (transmite cada partida a espectadores locales) --watch=puerto (mira una partida)
+    // --crowd=M [--n=N --t=T --threads=H --seed=S] (M jugadores sin hilo propio, en reloj virtual)
+    // --shards=K (con --crowd: tablero en K tiles con un hilo dueño cada uno, sin locks;
+    //            a diferencia de los otros modos, no es reproducible con la misma semilla)
+    static void parseArgs(String[] args) {
+        for (String arg : args) {
+            String[] kv = arg.split("=", 2);
+            String value = kv.length > 1 ? kv[1].trim() : "";
+            switch (kv[0]) {
+                case "--storage" -> boardConfig = boardConfig.withStorage(
+                        BoardConfig.Storage.valueOf(value.toUpperCase()));
+                case "--stripes" -> boardConfig = boardConfig.withLockStripes(Integer.parseInt(value));
+                case "--lockfree" -> boardConfig = boardConfig.withStorage(BoardConfig.Storage.PACKED).withLockFreeMoves(true);
+                case "--virtual" -> {
+                    if (!GameThreads.useVirtualThreads(true)) {
+                        System.out.println("Este JDK no tiene hilos virtuales; se usan hilos de plataforma.");
+                    }
+                }
+                case "--headless" -> headless = true;
+                case "--phased" -> phased = true;
+                case "--batch" -> batchGrid = value;
+                case "--out" -> batchOut = value;
+                case "--threads" -> batchThreads = Integer.parseInt(value);
+                case "--render" -> diffRender = value.equalsIgnoreCase("diff");
+                case "--events" -> {
+                    eventBackpressure = EventBus.Backpressure.valueOf(value.toUpperCase());
+                }
+                case "--journal" -> journalDir = value;
+                case "--replay" -> replayDir = value;
+                case "--resume" -> resumeFile = value;
+                case "--results" -> resultsFile = value;
+                case "--import" -> importDir = value;
+                case "--leaderboard" -> leaderboard = value.isEmpty() ? "coins" : value;
+                case "--history" -> historyOf = value;
+                case "--metrics" -> metricsEnabled = !value.equalsIgnoreCase("off");
+                case "--host" -> hostSessions = Integer.parseInt(value);
+                case "--spectators" -> spectatorPort = Integer.parseInt(value);
+                case "--watch" -> watchPort = Integer.parseInt(value);
+                case "--crowd" -> crowdPlayers = Integer.parseInt(value);
+                case "--shards" -> shards = Integer.parseInt(value);
+                case "--seed" -> seed = Long.parseLong(value);
+                case "--n" -> headlessN = Integer.parseInt(value);
+                case "--t" -> headlessT = Integer.parseInt(value);
+                case "--m" -> headlessM = Integer.parseInt(value);
+                default -> System.out.println("Opción desconocida: " + arg);
+            }
+        }
+    }
+
     static void printBoard(Board board) {
         String[][] s = board.snapshotWithColors();
         StringBuilder sb = new StringBuilder();
@@ -16,163 +143,449 @@ public class Main {
         System.out.print(sb.toString());
     }
 
-    public static void main(String[] args) throws Exception {
-        Scanner sc = new Scanner(System.in);
+    static void runHeadless() {
+        int N = headlessN, T = headlessT, M = headlessM;
+        Board board = new Board(N, N, boardConfig);
+        board.setTargetHeals((int) Math.floor(N * N * 0.10));
 
-        System.out.print("Tamaño del tablero N (sugerido 10): ");
-        int N = readInt(sc, 5, 50, 10);
-
-        System.out.print("Duración de la partida T en segundos (sugerido 60): ");
-        int T = readInt(sc, 10, 600, 60);
-
-        boolean INPUT_DATA = false;
-
-        long Zmin = 350;
-        long Zmax = 550;
-
-        long Xmin = 1000;
-        long Xmax = 1700;
-
-        long Ymin = 800;
-        long Ymax = 1500;
-
-        long Wmin = 1200;
-        long Wmax = 1900;
+        if (phased) {
+            runPhased(board, N, T, M);
+            return;
+        }
+        Simulation sim = new Simulation(board, seed);
+        for (int i = 1; i <= M; i++) {
+            Player p = new Player("Jugador" + i, i, board, 2, 350, 550);
+            board.placePlayerAtRandom(p);
+            sim.addPlayer(p);
+        }
+        sim.addRobot(new Robot(board, Booster.COIN, 800, 1500));
+        sim.addRobot(new Robot(board, Booster.HEAL, 1000, 1700));
+        sim.addRobot(new Robot(board, Booster.POISON, 1200, 1900));
 
-        int initial_lifes = 2;
-        int H = (int) Math.floor(N * N * 0.10);
+        long t0 = System.nanoTime();
+        List<Player> ranking = sim.run(T * 1000L);
+        double secs = (System.nanoTime() - t0) / 1e9;
 
-        if (INPUT_DATA) {
-            System.out.print("Zmin jugador (ms): ");
-            Zmin = readLong(sc, 10, 5000, 250);
+        StringBuilder report = new StringBuilder();
+        report.append("==== RESULTADOS SIMULACIÓN (semilla ").append(seed).append(") ====\n");
+        for (int i = 0; i < ranking.size(); i++) {
+            Player p = ranking.get(i);
+            report.append(String.format("%d) %s  | monedas=%d | vidas=%d%n", i + 1, p.name(), p.coins(), p.lifes()));
+        }
+        System.out.print(report);
+        System.out.printf("%d eventos, %.1f s de juego en %.3f s reales%n", sim.events(), sim.now() / 1000.0, secs);
+    }
 
-            System.out.print("Zmax jugador (ms): ");
-            Zmax = readLong(sc, Zmin, 8000, Math.max(500, Zmin + 500));
+    static void runReplay() throws IOException {
+        Replay replay = Replay.load(java.nio.file.Path.of(replayDir));
+        Replay.Result result = replay.run(boardConfig);
 
-            System.out.print("Ymin robot monedas (ms): ");
-            Ymin = readLong(sc, 10, 5000, 150);
+        StringBuilder report = new StringBuilder();
+        report.append("==== RESULTADOS REPRODUCCIÓN ====\n");
+        List<Player> ranking = result.players();
+        for (int i = 0; i < ranking.size(); i++) {
+            Player p = ranking.get(i);
+            report.append(String.format("%d) %s  | monedas=%d | vidas=%d%n", i + 1, p.name(), p.coins(), p.lifes()));
+        }
+        System.out.print(report);
+        System.out.printf("%d operaciones en %.3f s (%.0f op/s). %s%n", result.operations(), result.nanos() / 1e9,
+                result.opsPerSecond(), result.matches() ? "Coincide con la partida grabada."
+                        : "NO coincide: " + result.diverged() + " operaciones divergentes, "
+                        + result.mismatches() + " jugadores con otro resultado.");
+    }
 
-            System.out.print("Ymax robot monedas (ms): ");
-            Ymax = readLong(sc, Ymin, 8000, Math.max(400, Ymin + 400));
+    static void runPhased(Board board, int N, int T, int M) {
+        try (PhasedSimulation sim = new PhasedSimulation(board, seed, batchThreads)) {
+            for (int i = 1; i <= M; i++) {
+                Player p = new Player("Jugador" + i, i, board, 2, 350, 550);
+                board.placePlayerAtRandom(p);
+                sim.addPlayer(p);
+            }
+            sim.addRobot(new Robot(board, Booster.COIN, 800, 1500));
+            sim.addRobot(new Robot(board, Booster.HEAL, 1000, 1700));
+            sim.addRobot(new Robot(board, Booster.POISON, 1200, 1900));
+
+            long t0 = System.nanoTime();
+            List<Player> ranking = sim.run(T * 1000L);
+            double secs = (System.nanoTime() - t0) / 1e9;
+
+            StringBuilder report = new StringBuilder();
+            report.append("==== RESULTADOS SIMULACIÓN POR FASES (semilla ").append(seed).append(") ====\n");
+            for (int i = 0; i < Math.min(10, ranking.size()); i++) {
+                Player p = ranking.get(i);
+                report.append(String.format("%d) %s  | monedas=%d | vidas=%d%n", i + 1, p.name(), p.coins(), p.lifes()));
+            }
+            System.out.print(report);
+            System.out.printf("%d ticks, %d planes (%.0f planes/s en %d hilos), %d pasos, %.1f s de juego en %.3f s reales%n",
+                    sim.ticks(), sim.plans(), sim.plans() / Math.max(1e-9, sim.planNanos() / 1e9), sim.parallelism(),
+                    sim.steps(), sim.now() / 1000.0, secs);
+        }
+    }
 
-            System.out.print("Xmin robot vidas (ms): ");
-            Xmin = readLong(sc, 10, 5000, 300);
+    // Sin --n, el lado del tablero deja unas 4 celdas por jugador
+    static void runCrowd() {
+        int M = crowdPlayers;
+        int N = Math.max(headlessN, (int) Math.ceil(Math.sqrt(M * 4.0)));
+        if (shards > 0) {
+            runSharded(M, N);
+            return;
+        }
+        // Con un lock por celda un tablero de millones de celdas no entra en memoria
+        BoardConfig config = boardConfig.storage() == BoardConfig.Storage.CELLS
+                ? boardConfig.withStorage(BoardConfig.Storage.PACKED) : boardConfig;
+        long t0 = System.nanoTime();
+        Board board = new Board(N, N, config);
+        board.setTargetHeals((int) Math.floor(N * (double) N * 0.10));
+        try (Crowd crowd = new Crowd(board, M, 2, 350, 550, batchThreads, seed)) {
+            int refill = Math.max(1, M / 100);
+            while (board.tryPlaceCoin(5)) {}
+            while (board.tryPlaceHeal()) {}
+            while (board.tryPlaceTrap()) {}
+            long t1 = System.nanoTime();
+            System.out.printf("%d jugadores en %dx%d (%d vivos, %d bytes de estado c/u) listos en %.2f s, %d hilos%n",
+                    M, N, N, crowd.alive(), Crowd.bytesPerPlayer(), (t1 - t0) / 1e9, crowd.threads());
+
+            List<Crowd.Entry> top = crowd.run(headlessT * 1000L, refill);
+            double secs = (System.nanoTime() - t1) / 1e9;
+            System.out.printf("%d rondas (%.1f s virtuales) en %.2f s: %d pasos (%.0f/s), %d planes, %d vivos%n",
+                    crowd.rounds(), crowd.now() / 1000.0, secs, crowd.steps(), crowd.steps() / secs,
+                    crowd.plans(), crowd.alive());
+            for (int i = 0; i < top.size(); i++) {
+                Crowd.Entry e = top.get(i);
+                System.out.printf("%d) Jugador%d  | monedas=%d | vidas=%d%n", i + 1, e.id(), e.coins(), e.lives());
+            }
+        }
+    }
 
-            System.out.print("Xmax robot vidas (ms): ");
-            // FIX: usar Xmin como mínimo (antes había Wmin por error)
-            Xmax = readLong(sc, Xmin, 8000, Math.max(600, Xmin + 300));
+    static void runSharded(int M, int N) {
+        long t0 = System.nanoTime();
+        try (ShardedBoard board = new ShardedBoard(N, N, shards, M, 2, 350, 550, 0.10, seed)) {
+            long t1 = System.nanoTime();
+            System.out.printf("%d jugadores en %dx%d, %s, listos en %.2f s%n",
+                    board.players(), N, N, board.layout(), (t1 - t0) / 1e9);
+
+            List<Crowd.Entry> top = board.run(headlessT * 1000L);
+            double secs = (System.nanoTime() - t1) / 1e9;
+            System.out.printf("%d rondas (%.1f s virtuales) en %.2f s: %d movimientos (%.0f/s), %d entre tiles "
+                            + "(%d rechazados), %d bloqueados, %d vivos%n",
+                    board.rounds(), board.now() / 1000.0, secs, board.moves(), board.moves() / secs,
+                    board.handoffs(), board.rejected(), board.blocked(), board.players());
+            System.out.printf("Boosters: %d monedas, %d vidas, %d trampas%n",
+                    board.coinCells(), board.healItems(), board.traps());
+            for (int i = 0; i < top.size(); i++) {
+                Crowd.Entry e = top.get(i);
+                System.out.printf("%d) Jugador%d  | monedas=%d | vidas=%d%n", i + 1, e.id(), e.coins(), e.lives());
+            }
+        }
+    }
 
-            System.out.print("Wmin robot malo (ms): ");
-            Wmin = readLong(sc, 10, 5000, 300);
+    static void runHost() throws Exception {
+        int N = headlessN;
+        Tournament.GameParams params = new Tournament.GameParams(N, headlessT, headlessM, 350, 550,
+                (int) Math.floor(N * N * 0.10), 2, 800, 1500, 1000, 1700, 1200, 1900);
+        List<String> names = new ArrayList<>();
+        for (int i = 1; i <= headlessM; i++) names.add("Jugador" + i);
+
+        try (GameHost host = new GameHost(batchThreads, hostSessions)) {
+            host.useBoardConfig(boardConfig);
+            List<CompletableFuture<List<Player>>> results = new ArrayList<>();
+            for (int i = 0; i < hostSessions; i++) results.add(host.start(params, names).result());
+            System.out.printf("%d partidas de %dx%d con %d jugadores sobre %d hilos%n",
+                    hostSessions, N, N, headlessM, host.threads());
+
+            CompletableFuture<Void> all =
+                    CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0]));
+            while (!all.isDone()) {
+                try {
+                    all.get(1, TimeUnit.SECONDS);
+                } catch (TimeoutException e) {
+                    System.out.printf("%d activas, %d terminadas%n", host.active(), host.finished());
+                }
+            }
+            Map<String, Integer> wins = new TreeMap<>();
+            for (var r : results) wins.merge(r.get().get(0).name(), 1, Integer::sum);
+            System.out.println("Victorias por lugar de salida: " + wins);
+            System.out.print(host.report());
+        }
+    }
 
-            System.out.print("Wmax robot malo (ms): ");
-            Wmax = readLong(sc, Wmin, 8000, Math.max(600, Wmin + 300));
+    static void runResultsQueries() throws IOException {
+        try (ResultsStore store = ResultsStore.open(java.nio.file.Path.of(resultsFile))) {
+            if (importDir != null) {
+                long t0 = System.nanoTime();
+                int added = store.importText(java.nio.file.Path.of(importDir), batchThreads);
+                System.out.printf("%d partidas importadas en %.2f s (%d en total)%n",
+                        added, (System.nanoTime() - t0) / 1e9, store.games());
+            }
+            if (leaderboard != null) {
+                ResultsStore.Order order = switch (leaderboard.toLowerCase()) {
+                    case "wins" -> ResultsStore.Order.WINS;
+                    case "winrate" -> ResultsStore.Order.WIN_RATE;
+                    case "games" -> ResultsStore.Order.GAMES;
+                    default -> ResultsStore.Order.COINS;
+                };
+                long t0 = System.nanoTime();
+                List<ResultsStore.Standing> top = store.leaderboard(order, 20);
+                System.out.printf("==== TABLA HISTÓRICA (%s, %d partidas, %.2f ms) ====%n",
+                        leaderboard, store.games(), (System.nanoTime() - t0) / 1e6);
+                for (int i = 0; i < top.size(); i++) {
+                    ResultsStore.Standing st = top.get(i);
+                    System.out.printf("%d) %s  | partidas=%d | victorias=%d (%.1f%%) | monedas=%d | récord=%d%n",
+                            i + 1, st.name(), st.games(), st.wins(), st.winRate() * 100, st.coins(), st.bestCoins());
+                }
+            }
+            if (historyOf != null) {
+                ResultsStore.Standing st = store.standing(historyOf);
+                if (st == null) {
+                    System.out.println("No hay partidas de " + historyOf);
+                    return;
+                }
+                System.out.printf("==== %s: %d partidas, %d victorias (%.1f%%) ====%n",
+                        st.name(), st.games(), st.wins(), st.winRate() * 100);
+                for (ResultsStore.GameResult g : store.history(historyOf, 20)) {
+                    System.out.printf("#%d %s %s  | puesto %d de %d | monedas=%d | vidas=%d%n", g.game(),
+                            java.time.Instant.ofEpochMilli(g.timeMillis()), g.kind(), g.rank(), g.players(), g.coins(), g.lives());
+                }
+            }
+        }
+    }
 
-            System.out.print("Cantidad de vidas H a colocar (fijo, +1 por casilla): ");
-            H = readInt(sc, 0, N * N, Math.max(1, (int) (0.05 * N * N)));
+    // Agrega el ranking final al archivo de resultados
+    static void saveResult(ResultsStore.Kind kind, List<Player> ranking) {
+        List<ResultsStore.Entry> entries = new ArrayList<>();
+        for (Player p : ranking) entries.add(new ResultsStore.Entry(p.name(), p.coins(), p.lifes()));
+        try {
+            if (results == null) results = ResultsStore.open(java.nio.file.Path.of(resultsFile));
+            long game = results.append(kind, System.currentTimeMillis(), entries);
+            System.out.println("Resultado guardado en: " + resultsFile + " (partida #" + game + ")");
+        } catch (IOException e) {
+            System.out.println("No se pudo guardar el resultado: " + e.getMessage());
+        }
+    }
 
-            System.out.print("Cantidad de vidas iniciales por jugador: ");
-            initial_lifes = readInt(sc, 1, 10, 3);
+    static void closeResults() {
+        if (results == null) return;
+        try {
+            results.close();
+        } catch (IOException e) {
+            System.out.println("No se pudo cerrar el archivo de resultados: " + e.getMessage());
         }
+        results = null;
+    }
 
-        System.out.print("Cantidad de jugadores M (1 a 4): ");
-        int M = readInt(sc, 1, 4, 3);
+    static GameMetrics newMetrics(Board board) {
+        if (!metricsEnabled) return null;
+        GameMetrics metrics = new GameMetrics().registerMBean();
+        board.recordMetrics(metrics);
+        return metrics;
+    }
 
-        List<String> names = new ArrayList<>();
-        for (int i = 1; i <= M; i++) {
-            System.out.print("Nombre del jugador " + i + ": ");
-            String nm = sc.nextLine().trim(); 
-            if (nm.isEmpty()) nm = "Jugador" + i;
-            names.add(nm);
+    // Guarda la partida terminada en CHECKPOINT_FILE; llamar con los jugadores ya detenidos
+    static void saveCheckpoint(Board board, List<Player> players) {
+        java.nio.file.Path file = CHECKPOINT_FILE;
+        long t0 = System.nanoTime();
+        try {
+            Checkpoint.write(file, board, players);
+            lastCheckpoint = file;
+            System.out.printf("Checkpoint guardado en %s (%.0f ms)%n", file, (System.nanoTime() - t0) / 1e6);
+        } catch (IOException e) {
+            // Sin checkpoint de esta partida, "continuar" no debe retomar uno viejo
+            lastCheckpoint = null;
+            System.out.println("No se pudo guardar el checkpoint: " + e.getMessage());
         }
+    }
 
-        Board board = new Board(N, N);
-        board.setTargetHeals(H);
+    // Bus de eventos de la partida: un consumidor imprime y otro cuenta. Un diario
+    // con huecos no se puede reproducir, así que con --journal el tablero publica
+    // en un bus que espera lugar y la consola recibe una copia por su propio bus
+    // (--events): si System.out se atrasa se llena ese, no el de los jugadores.
+    static EventBus newEventBus(Board board, EventStats stats) {
+        EventBus console = new EventBus(EVENT_CAPACITY, eventBackpressure);
+        console.subscribe("Consola", new EventConsoleLogger(board, System.out));
+        EventBus bus = console;
+        if (journalDir != null) {
+            java.nio.file.Path dir = java.nio.file.Path.of(journalDir,
+                    "partida_" + java.time.LocalDateTime.now().toString().replace(':', '-'));
+            try {
+                journal = new GameJournal(dir, board);
+                bus = new EventBus(EVENT_CAPACITY, EventBus.Backpressure.BLOCK);
+                bus.subscribe("Diario", journal);
+                bus.subscribe("Consola", EventBus.relay(console));
+                System.out.println("Diario de la partida en: " + dir);
+            } catch (IOException e) {
+                System.out.println("No se pudo crear el diario: " + e.getMessage());
+                journal = null;
+            }
+        }
+        bus.subscribe("Estadisticas", stats);
+        consoleBus = console;
+        board.publishTo(bus);
+        return bus;
+    }
 
-        Thread coinBot = new Thread(new Robot(board, Booster.COIN, Ymin, Ymax), "RobotMonedas");
-        Thread healBot = new Thread(new Robot(board, Booster.HEAL, Xmin, Xmax), "RobotVidas");
-        Thread badBot  = new Thread(new Robot(board, Booster.POISON, Wmin, Wmax), "RobotMalo");
+    static void closeEventBus(EventBus bus, EventStats stats, List<Player> players) throws InterruptedException {
+        bus.close(1000);
+        // Los resultados van al final del diario, que escribe su propio hilo
+        if (journal != null) bus.join(journal);
+        long dropped = bus.dropped();
+        if (consoleBus != bus) {
+            consoleBus.close(1000);
+            dropped += consoleBus.dropped();
+        }
+        consoleBus = null;
+        System.out.println("Eventos: " + stats + (dropped > 0 ? " (" + dropped + " descartados)" : ""));
+        if (journal != null) {
+            try (GameJournal j = journal) {
+                for (Player p : players) j.result(p);
+                System.out.println("Diario: " + j.records() + " registros en " + j.segments() + " segmento(s)");
+            } catch (IOException e) {
+                System.out.println("No se pudo cerrar el diario: " + e.getMessage());
+            }
+            journal = null;
+        }
+    }
 
-        List<Player> players = new ArrayList<>();
-        List<Thread> threads = new ArrayList<>();
+    // Hilo que muestra el tablero cada 300 ms, completo o incremental (--render=diff)
+    static Thread newDisplay(Board board, boolean[] running) {
+        return new Thread(() -> {
+            SpectatorServer spectators = startSpectators(board);
+            try {
+                display(board, running);
+            } finally {
+                if (spectators != null) {
+                    spectators.close();
+                    System.out.printf("Espectadores: %d cuadros (%d claves), %d KiB enviados, %d atrasos%n",
+                            spectators.frames(), spectators.keyframes(), spectators.bytesSent() / 1024,
+                            spectators.skipped());
+                }
+            }
+        }, "Display");
+    }
 
-        int id = 1;
-        for (String nm : names) {
-            Player p = new Player(nm, id++, board, initial_lifes, Zmin, Zmax);
-            players.add(p);
+    static SpectatorServer startSpectators(Board board) {
+        if (spectatorPort < 0) return null;
+        try {
+            SpectatorServer server = new SpectatorServer(board, spectatorPort);
+            System.out.println("Espectadores en localhost:" + server.port());
+            return server;
+        } catch (java.io.IOException e) {
+            System.out.println("No se pudo abrir el servidor de espectadores: " + e.getMessage());
+            return null;
         }
-        for (Player p : players) board.placePlayerAtRandom(p);
+    }
 
-        final boolean[] running = { true };
-        Thread display = new Thread(() -> {
+    static void display(Board board, boolean[] running) {
+        if (diffRender) {
+            BoardRenderer renderer = new BoardRenderer(board, System.out);
             try {
                 while (running[0]) {
-                    System.out.println();
-                    printBoard(board);
+                    FlightEvents.DisplayFrame frame = new FlightEvents.DisplayFrame();
+                    frame.begin();
+                    renderer.renderFrame();
+                    frame.diff = true;
+                    frame.commit();
                     Thread.sleep(300);
                 }
-            } catch (InterruptedException ignored) {}
-        }, "Display");
-
-        coinBot.start();
-        healBot.start();
-        badBot.start();
-
-        for (Player p : players) {
-            Thread t = new Thread(p, "Player-" + p.name());
-            threads.add(t);
-            t.start();
+            } catch (InterruptedException ignored) {
+            } finally {
+                renderer.close();
+            }
+            return;
         }
-        display.start();
-
-        System.out.println("\n>>> Comienza la partida con " + M + " jugadores! (duración " + T + "s)");
+        try {
+            while (running[0]) {
+                FlightEvents.DisplayFrame frame = new FlightEvents.DisplayFrame();
+                frame.begin();
+                System.out.println();
+                printBoard(board);
+                frame.commit();
+                Thread.sleep(300);
+            }
+        } catch (InterruptedException ignored) {}
+    }
 
-        long deadline = System.currentTimeMillis() + T * 1000L;
-        while (System.currentTimeMillis() < deadline) {
-            int alive = 0;
-            for (Player p : players) if (p.lifes() > 0) alive++;
-            if (alive <= 1) break;
-            Thread.sleep(200);
+    // Se conecta a una partida transmitida con --spectators y la muestra hasta que termine
+    static void runWatch() throws Exception {
+        try (java.net.Socket socket = new java.net.Socket(java.net.InetAddress.getLoopbackAddress(), watchPort)) {
+            java.io.DataInputStream in = new java.io.DataInputStream(
+                    new java.io.BufferedInputStream(socket.getInputStream()));
+            SpectatorView view = new SpectatorView();
+            while (view.read(in)) {
+                if (!view.ready()) continue;
+                System.out.println();
+                System.out.print(view.render());
+            }
+            System.out.printf("Transmisión terminada: %d cuadros clave, %d deltas%n", view.keyframes(), view.deltas());
         }
+    }
 
-        for (Player p : players) p.stopGracefully();
-        coinBot.interrupt(); healBot.interrupt(); badBot.interrupt();
-        running[0] = false; display.interrupt();
-
-        for (Thread t : threads) t.join(2000);
-
-        players.sort((a, b) -> {
-            int aliveA = a.lifes() > 0 ? 1 : 0;
-            int aliveB = b.lifes() > 0 ? 1 : 0;
-            if (aliveA != aliveB) return Integer.compare(aliveB, aliveA);
-            if (a.coins() != b.coins()) return Integer.compare(b.coins(), a.coins());
-            if (a.lifes() != b.lifes()) return Integer.compare(b.lifes(), a.lifes());
-            return a.name().compareToIgnoreCase(b.name());
-        });
-
-        StringBuilder report = new StringBuilder();
-        report.append("==== RESULTADOS DE LA PARTIDA ====\n");
-        for (int i = 0; i < players.size(); i++) {
-            Player p = players.get(i);
-            report.append(String.format("%d) %s  | monedas=%d | vidas=%d%n", i + 1, p.name(), p.coins(), p.lifes()));
+    public static void main(String[] args) throws Exception {
+        parseArgs(args);
+        if (batchGrid != null) {
+            Tournament tournament = Tournament.fromGridFile(java.nio.file.Path.of(batchGrid));
+            tournament.useBoardConfig(boardConfig);
+            String out = batchOut != null ? batchOut
+                    : "torneo_" + java.time.LocalDateTime.now().toString().replace(':', '-') + ".csv";
+            long t0 = System.nanoTime();
+            tournament.run(java.nio.file.Path.of(out), batchThreads);
+            double secs = (System.nanoTime() - t0) / 1e9;
+            System.out.printf("%d partidas en %.2f s (%.0f partidas/s, %d hilos). Resultados en %s, resumen en %s%n",
+                    tournament.totalGames(), secs, tournament.totalGames() / secs, batchThreads, out,
+                    Tournament.summaryPath(java.nio.file.Path.of(out)));
+            return;
         }
-
-        System.out.println("\n" + report);
-
-        String filename = "partida_" + java.time.LocalDateTime.now().toString().replace(':', '-') + ".txt";
-        try (PrintWriter out = new PrintWriter(new FileWriter(filename, false))) {
-            out.print(report.toString());
+        if (headless) {
+            runHeadless();
+            return;
         }
-        System.out.println("Log guardado en: " + filename);
-
-        askForNewGame(players, N, T, initial_lifes, Zmin, Zmax, Ymin, Ymax, Xmin, Xmax, Wmin, Wmax, H, sc);
+        if (replayDir != null) {
+            runReplay();
+            return;
+        }
+        if (watchPort >= 0) {
+            runWatch();
+            return;
+        }
+        if (crowdPlayers > 0) {
+            runCrowd();
+            return;
+        }
+        if (hostSessions > 0) {
+            runHost();
+            return;
+        }
+        if (importDir != null || leaderboard != null || historyOf != null) {
+            runResultsQueries();
+            return;
+        }
+        Scanner sc = new Scanner(System.in);
+        Round round;
+        if (resumeFile != null) {
+            lastCheckpoint = java.nio.file.Path.of(resumeFile);
+            Checkpoint ck = Checkpoint.read(lastCheckpoint);
+            round = continueWithCurrentPlayers(List.of(), new Tournament.GameParams(ck.rows(), headlessT, 0,
+                    350, 550, 0, 2, 800, 1500, 1000, 1700, 1200, 1900));
+        } else {
+            round = startCompleteNewGame(sc, false);
+        }
+        // Una partida por vuelta hasta que se elige terminar
+        while (round != null) round = askForNewGame(round, sc);
 
         sc.close();
+        closeResults();
     }
 
-    private static void askForNewGame(List<Player> previousPlayers, int boardSize, int gameTime,
-                                      int initialLives, long Zmin, long Zmax, long Ymin, long Ymax,
-                                      long Xmin, long Xmax, long Wmin, long Wmax, int H, Scanner sc) throws Exception {
+    // Parámetros de la última partida jugada y su ranking, para el menú siguiente
+    private record Round(Tournament.GameParams params, List<Player> ranking) {}
+
+    private static Tournament.GameParams withLives(Tournament.GameParams p, int lives) {
+        return new Tournament.GameParams(p.n(), p.t(), p.m(), p.zmin(), p.zmax(), p.h(), lives,
+                p.ymin(), p.ymax(), p.xmin(), p.xmax(), p.wmin(), p.wmax());
+    }
+
+    // Devuelve la partida elegida ya jugada, o null para terminar
+    private static Round askForNewGame(Round previous, Scanner sc) throws Exception {
+        List<Player> previousPlayers = previous.ranking();
 
         int alivePlayers = 0;
         for (Player p : previousPlayers) {
@@ -199,17 +612,12 @@ public class Main {
 
             System.out.println("Opción elegida: " + option);
 
-            switch (option) {
-                case 1 -> {
-                    System.out.println("Iniciando nueva partida completa...");
-                    startCompleteNewGame(sc);
-                }
-                default -> {
-                    System.out.println("¡Gracias por jugar!");
-                    return;
-                }
+            if (option == 1) {
+                System.out.println("Iniciando nueva partida completa...");
+                return startCompleteNewGame(sc, true);
             }
-            return;
+            System.out.println("¡Gracias por jugar!");
+            return null;
         }
 
         System.out.println(" Jugadores vivos: " + alivePlayers);
@@ -233,8 +641,7 @@ public class Main {
         switch (option) {
             case 1 -> {
                 System.out.println(" Continuando con los jugadores actuales...");
-                continueWithCurrentPlayers(previousPlayers, boardSize, gameTime, initialLives,
-                        Zmin, Zmax, Ymin, Ymax, Xmin, Xmax, Wmin, Wmax, H, sc);
+                return continueWithCurrentPlayers(previousPlayers, previous.params());
             }
             case 2 -> {
                 List<Player> survivors = new ArrayList<>();
@@ -248,41 +655,40 @@ public class Main {
                 if (survivors.size() < 2) {
                     System.out.println("Solo " + survivors.size() + " sobreviviente(s). Se necesitan al menos 2.");
                     System.out.println("Cambiando a nueva partida completa...");
-                    startCompleteNewGame(sc);
-                    return;
-                } else {
-                    System.out.println(" " + survivors.size() + " sobrevivientes encontrados!");
-                    runNewGame(survivors, boardSize, gameTime, 2,
-                            Zmin, Zmax, Ymin, Ymax, Xmin, Xmax, Wmin, Wmax, H, true, sc);
+                    return startCompleteNewGame(sc, true);
                 }
+                System.out.println(" " + survivors.size() + " sobrevivientes encontrados!");
+                return runNewGame(survivors, withLives(previous.params(), 2), true);
             }
             case 3 -> {
                 System.out.println(" Iniciando nueva partida completa...");
-                startCompleteNewGame(sc);
+                return startCompleteNewGame(sc, true);
             }
             default -> {
                 System.out.println("¡Gracias por jugar!");
-                return;
+                return null;
             }
         }
     }
 
-    private static void runNewGame(List<Player> oldPlayers, int boardSize, int gameTime, int initialLives,
-                                   long Zmin, long Zmax, long Ymin, long Ymax, long Xmin, long Xmax,
-                                   long Wmin, long Wmax, int H, boolean reviveAll, Scanner sc) throws Exception {
+    private static Round runNewGame(List<Player> oldPlayers, Tournament.GameParams params, boolean reviveAll)
+            throws InterruptedException {
 
         System.out.println("\n ¡INICIANDO NUEVA PARTIDA!");
 
-        Board board = new Board(boardSize, boardSize);
-        board.setTargetHeals(H);
+        Board board = new Board(params.n(), params.n(), boardConfig);
+        board.setTargetHeals(params.h());
+        EventStats stats = new EventStats();
+        EventBus events = newEventBus(board, stats);
+        GameMetrics metrics = newMetrics(board);
 
         List<Player> players = new ArrayList<>();
         int id = 1;
         for (Player oldPlayer : oldPlayers) {
-            int newLives = reviveAll ? initialLives : Math.max(1, oldPlayer.lifes());
-            Player newPlayer = new Player(oldPlayer.name(), id++, board, newLives, Zmin, Zmax);
+            int newLives = reviveAll ? params.lives() : Math.max(1, oldPlayer.lifes());
+            Player newPlayer = new Player(oldPlayer.name(), id++, board, newLives, params.zmin(), params.zmax());
             
-            if (!reviveAll && oldPlayer.coins() > 0 && initialLives != 2) {
+            if (!reviveAll && oldPlayer.coins() > 0 && params.lives() != 2) {
                 newPlayer.addCoins(oldPlayer.coins());
             }
                     
@@ -294,82 +700,44 @@ public class Main {
             board.placePlayerAtRandom(p);
         }
 
-        Thread coinBot = new Thread(new Robot(board, Booster.COIN, Ymin, Ymax), "RobotMonedas");
-        Thread healBot = new Thread(new Robot(board, Booster.HEAL, Xmin, Xmax), "RobotVidas");
-        Thread badBot  = new Thread(new Robot(board, Booster.POISON, Wmin, Wmax), "RobotMalo");
-
-        List<Thread> threads = new ArrayList<>();
-        for (Player p : players) {
-            Thread t = new Thread(p, "Player-" + p.name());
-            threads.add(t);
-        }
-
-        final boolean[] running = { true };
-        Thread display = new Thread(() -> {
-            try {
-                while (running[0]) {
-                    System.out.println();
-                    printBoard(board);
-                    Thread.sleep(300);
-                }
-            } catch (InterruptedException ignored) {}
-        }, "Display");
-
-        coinBot.start();
-        healBot.start();
-        badBot.start();
-        display.start();
-
-        for (Thread t : threads) t.start();
-
-        System.out.println("Duración: " + gameTime + " segundos");
-
-        long deadline = System.currentTimeMillis() + gameTime * 1000L;
-        while (System.currentTimeMillis() < deadline) {
-            int alive = 0;
-            for (Player p : players) if (p.lifes() > 0) alive++;
-            if (alive <= 1) break;
-            Thread.sleep(200);
-        }
-
-        for (Player p : players) p.stopGracefully();
-        coinBot.interrupt(); healBot.interrupt(); badBot.interrupt();
-        running[0] = false; display.interrupt();
+        System.out.println("Duración: " + params.t() + " segundos");
+        playGame(board, players, params, events, stats, metrics);
+        return finishGame(params, players, metrics, "NUEVA PARTIDA", ResultsStore.Kind.NUEVA);
+    }
 
-        for (Thread t : threads) t.join(2000);
+    private static Round continueWithCurrentPlayers(List<Player> currentPlayers, Tournament.GameParams params)
+            throws InterruptedException {
 
-        players.sort((a, b) -> {
-            int aliveA = a.lifes() > 0 ? 1 : 0;
-            int aliveB = b.lifes() > 0 ? 1 : 0;
-            if (aliveA != aliveB) return Integer.compare(aliveB, aliveA);
-            if (a.coins() != b.coins()) return Integer.compare(b.coins(), a.coins());
-            if (a.lifes() != b.lifes()) return Integer.compare(b.lifes(), a.lifes());
-            return a.name().compareToIgnoreCase(b.name());
-        });
+        System.out.println("\n ¡CONTINUANDO CON LOS JUGADORES ACTUALES!");
 
-        StringBuilder report = new StringBuilder();
-        report.append("==== RESULTADOS NUEVA PARTIDA ====\n");
-        for (int i = 0; i < players.size(); i++) {
-            Player p = players.get(i);
-            report.append(String.format("%d) %s  | monedas=%d | vidas=%d%n", i + 1, p.name(), p.coins(), p.lifes()));
+        int boardSize = params.n();
+        // Con checkpoint se retoma el mismo tablero: boosters, posiciones y objetivos
+        Checkpoint resumed = null;
+        if (lastCheckpoint != null) {
+            try {
+                Checkpoint ck = Checkpoint.read(lastCheckpoint);
+                if (ck.rows() == boardSize && ck.cols() == boardSize) resumed = ck;
+            } catch (IOException e) {
+                System.out.println("No se pudo leer el checkpoint: " + e.getMessage());
+            }
         }
-
-        System.out.println("\n" + report);
-
-        String filename = "nueva_partida_" + java.time.LocalDateTime.now().toString().replace(':', '-') + ".txt";
-        try (PrintWriter out = new PrintWriter(new FileWriter(filename, false))) {
-            out.print(report.toString());
+        Board board = new Board(boardSize, boardSize, boardConfig);
+        board.setTargetHeals(params.h());
+        EventStats stats = new EventStats();
+        EventBus events = newEventBus(board, stats);
+        GameMetrics metrics = newMetrics(board);
+        if (resumed != null) {
+            long t0 = System.nanoTime();
+            currentPlayers = resumed.restore(board);
+            System.out.printf("Partida retomada desde %s (%.0f ms)%n", lastCheckpoint, (System.nanoTime() - t0) / 1e6);
+            // Ya está en el tablero: no queda un archivo por partida
+            try {
+                java.nio.file.Files.deleteIfExists(lastCheckpoint);
+            } catch (IOException e) {
+                System.out.println("No se pudo borrar el checkpoint: " + e.getMessage());
+            }
+            lastCheckpoint = null;
         }
-        System.out.println("Log guardado en: " + filename);
-
-        askForNewGame(players, boardSize, gameTime, initialLives, Zmin, Zmax, Ymin, Ymax, Xmin, Xmax, Wmin, Wmax, H, sc);
-    }
-
-    private static void continueWithCurrentPlayers(List<Player> currentPlayers, int boardSize, int gameTime,
-                                                   int initialLives, long Zmin, long Zmax, long Ymin, long Ymax,
-                                                   long Xmin, long Xmax, long Wmin, long Wmax, int H, Scanner sc) throws Exception {
-
-        System.out.println("\n ¡CONTINUANDO CON LOS JUGADORES ACTUALES!");
 
         List<Player> alivePlayers = new ArrayList<>();
         System.out.println("\n Estado actual de los jugadores:");
@@ -381,134 +749,114 @@ public class Main {
         if (alivePlayers.size() < 2) {
             System.out.println("No hay suficientes jugadores vivos para continuar.");
             System.out.println("Cambiando a nueva partida con todos revividos...");
-            runNewGame(currentPlayers, boardSize, gameTime, initialLives, Zmin, Zmax, Ymin, Ymax, Xmin, Xmax, Wmin, Wmax, H, true, sc);
-            return;
+            closeEventBus(events, stats, List.of());
+            return runNewGame(currentPlayers, params, true);
         }
 
         System.out.println("Continuando con " + alivePlayers.size() + " jugadores vivos");
 
-        Board board = new Board(boardSize, boardSize);
-        board.setTargetHeals(H);
-
         List<Player> players = new ArrayList<>();
-        int id = 1;
-        for (Player oldPlayer : alivePlayers) {
-            Player continuingPlayer = new Player(oldPlayer.name(), id++, board, oldPlayer.lifes(), Zmin, Zmax);
-            if (oldPlayer.coins() > 0) continuingPlayer.addCoins(oldPlayer.coins());
-            players.add(continuingPlayer);
+        if (resumed != null) {
+            players.addAll(alivePlayers);
+        } else {
+            int id = 1;
+            for (Player oldPlayer : alivePlayers) {
+                Player continuingPlayer = new Player(oldPlayer.name(), id++, board, oldPlayer.lifes(),
+                        params.zmin(), params.zmax());
+                if (oldPlayer.coins() > 0) continuingPlayer.addCoins(oldPlayer.coins());
+                players.add(continuingPlayer);
+            }
+            for (Player p : players) board.placePlayerAtRandom(p);
         }
 
-        for (Player p : players) board.placePlayerAtRandom(p);
+        System.out.println("Duración: " + params.t() + " segundos");
+        playGame(board, players, params, events, stats, metrics);
+        return finishGame(params, players, metrics, "PARTIDA CONTINUADA", ResultsStore.Kind.CONTINUADA);
+    }
+    
+    // La primera partida del programa y las que se configuran de nuevo desde el menú
+    private static Round startCompleteNewGame(Scanner sc, boolean again) throws Exception {
+        if (again) {
+            System.out.println("\n ===== NUEVA PARTIDA COMPLETA =====");
+            System.out.println("Configurando todo desde cero...\n");
+        }
+        
+        System.out.print("Tamaño del tablero N (sugerido 10): ");
+        int N = readInt(sc, 5, 50, 10);
 
-        Thread coinBot = new Thread(new Robot(board, Booster.COIN, Ymin, Ymax), "RobotMonedas");
-        Thread healBot = new Thread(new Robot(board, Booster.HEAL, Xmin, Xmax), "RobotVidas");
-        Thread badBot  = new Thread(new Robot(board, Booster.POISON, Wmin, Wmax), "RobotMalo");
+        System.out.print("Duración de la partida T en segundos (sugerido 60): ");
+        int T = readInt(sc, 10, 600, 60);
 
-        List<Thread> threads = new ArrayList<>();
-        for (Player p : players) {
-            Thread t = new Thread(p, "Player-" + p.name());
-            threads.add(t);
-        }
+        boolean INPUT_DATA = false;
 
-        final boolean[] running = { true };
-        Thread display = new Thread(() -> {
-            try {
-                while (running[0]) {
-                    System.out.println();
-                    printBoard(board);
-                    Thread.sleep(300);
-                }
-            } catch (InterruptedException ignored) {}
-        }, "Display");
+        long Zmin = 350;
+        long Zmax = 550;
 
-        coinBot.start();
-        healBot.start();
-        badBot.start();
-        display.start();
+        long Xmin = 1000;
+        long Xmax = 1700;
 
-        for (Thread t : threads) t.start();
+        long Ymin = 800;
+        long Ymax = 1500;
 
-        System.out.println("Duración: " + gameTime + " segundos");
+        long Wmin = 1200;
+        long Wmax = 1900;
 
-        long deadline = System.currentTimeMillis() + gameTime * 1000L;
-        while (System.currentTimeMillis() < deadline) {
-            int alive = 0;
-            for (Player p : players) if (p.lifes() > 0) alive++;
-            if (alive <= 1) break;
-            Thread.sleep(200);
-        }
+        int initial_lifes = 2;
+        int H = (int) Math.floor(N * N * 0.10);
 
-        for (Player p : players) p.stopGracefully();
-        coinBot.interrupt(); healBot.interrupt(); badBot.interrupt();
-        running[0] = false; display.interrupt();
+        if (INPUT_DATA) {
+            System.out.print("Zmin jugador (ms): ");
+            Zmin = readLong(sc, 10, 5000, 250);
 
-        for (Thread t : threads) t.join(2000);
+            System.out.print("Zmax jugador (ms): ");
+            Zmax = readLong(sc, Zmin, 8000, Math.max(500, Zmin + 500));
 
-        players.sort((a, b) -> {
-            int aliveA = a.lifes() > 0 ? 1 : 0;
-            int aliveB = b.lifes() > 0 ? 1 : 0;
-            if (aliveA != aliveB) return Integer.compare(aliveB, aliveA);
-            if (a.coins() != b.coins()) return Integer.compare(b.coins(), a.coins());
-            if (a.lifes() != b.lifes()) return Integer.compare(b.lifes(), a.lifes());
-            return a.name().compareToIgnoreCase(b.name());
-        });
+            System.out.print("Ymin robot monedas (ms): ");
+            Ymin = readLong(sc, 10, 5000, 150);
 
-        StringBuilder report = new StringBuilder();
-        report.append("==== RESULTADOS PARTIDA CONTINUADA ====\n");
-        for (int i = 0; i < players.size(); i++) {
-            Player p = players.get(i);
-            report.append(String.format("%d) %s  | monedas=%d | vidas=%d%n", i + 1, p.name(), p.coins(), p.lifes()));
-        }
+            System.out.print("Ymax robot monedas (ms): ");
+            Ymax = readLong(sc, Ymin, 8000, Math.max(400, Ymin + 400));
 
-        System.out.println("\n" + report);
+            System.out.print("Xmin robot vidas (ms): ");
+            Xmin = readLong(sc, 10, 5000, 300);
 
-        String filename = "partida_continuada_" + java.time.LocalDateTime.now().toString().replace(':', '-') + ".txt";
-        try (PrintWriter out = new PrintWriter(new FileWriter(filename, false))) {
-            out.print(report.toString());
-        }
-        System.out.println("Log guardado en: " + filename);
+            System.out.print("Xmax robot vidas (ms): ");
+            // FIX: usar Xmin como mínimo (antes había Wmin por error)
+            Xmax = readLong(sc, Xmin, 8000, Math.max(600, Xmin + 300));
 
-        askForNewGame(players, boardSize, gameTime, initialLives, Zmin, Zmax, Ymin, Ymax, Xmin, Xmax, Wmin, Wmax, H, sc);
-    }
-    
-    private static void startCompleteNewGame(Scanner sc) throws Exception {
-        System.out.println("\n ===== NUEVA PARTIDA COMPLETA =====");
-        System.out.println("Configurando todo desde cero...\n");
-        
-        System.out.print("Tamaño del tablero N (sugerido 10): ");
-        int N = readInt(sc, 5, 50, 10);
+            System.out.print("Wmin robot malo (ms): ");
+            Wmin = readLong(sc, 10, 5000, 300);
 
-        System.out.print("Duración de la partida T en segundos (sugerido 60): ");
-        int T = readInt(sc, 10, 600, 60);
+            System.out.print("Wmax robot malo (ms): ");
+            Wmax = readLong(sc, Wmin, 8000, Math.max(600, Wmin + 300));
 
-        boolean INPUT_DATA = false;
-        long Zmin = 350, Zmax = 550;
-        long Xmin = 1000, Xmax = 1700;
-        long Ymin = 800, Ymax = 1500;
-        long Wmin = 1200, Wmax = 1900;
-        int initial_lifes = 2;
-        int H = (int)Math.floor(N*N*0.10);
+            System.out.print("Cantidad de vidas H a colocar (fijo, +1 por casilla): ");
+            H = readInt(sc, 0, N * N, Math.max(1, (int) (0.05 * N * N)));
 
-        if (INPUT_DATA) {
             System.out.print("Cantidad de vidas iniciales por jugador: ");
-            initial_lifes = readInt(sc, 1, 10, 2);
+            initial_lifes = readInt(sc, 1, 10, 3);
         }
 
         System.out.print("Cantidad de jugadores M (1 a 4): ");
         int M = readInt(sc, 1, 4, 3);
 
         List<String> names = new ArrayList<>();
-        for (int i=1; i<=M; i++) {
+        for (int i = 1; i <= M; i++) {
             System.out.print("Nombre del jugador " + i + ": ");
-            String nm = sc.next().trim();
+            String nm = sc.nextLine().trim(); 
             if (nm.isEmpty()) nm = "Jugador" + i;
             names.add(nm);
         }
-        
-        sc.nextLine();
+        Tournament.GameParams params = new Tournament.GameParams(N, T, M, Zmin, Zmax, H, initial_lifes,
+                Ymin, Ymax, Xmin, Xmax, Wmin, Wmax);
 
-        Board board = new Board(N, N);
+        Board board = new Board(N, N, boardConfig);
         board.setTargetHeals(H);
+        EventStats stats = new EventStats();
+        EventBus events = newEventBus(board, stats);
+        GameMetrics metrics = newMetrics(board);
+        System.out.println("Almacenamiento " + boardConfig.storage() + ", " + board.lockStripes() + " locks: ~"
+                + board.bytesPerCell() + " bytes por celda");
 
         List<Player> players = new ArrayList<>();
         int id = 1;
@@ -518,77 +866,78 @@ public class Main {
         }
         for (Player p : players) board.placePlayerAtRandom(p);
 
-        Thread coinBot = new Thread(new Robot(board, Booster.COIN, Ymin, Ymax), "RobotMonedas");
-        Thread healBot = new Thread(new Robot(board, Booster.HEAL, Xmin, Xmax), "RobotVidas");
-        Thread badBot = new Thread(new Robot(board, Booster.POISON, Wmin, Wmax), "RobotMalo");
+        if (again) System.out.println("\n>>> ¡Nueva partida completa iniciada con " + M + " jugadores! (duración " + T + "s)");
+        else System.out.println("\n>>> Comienza la partida con " + M + " jugadores! (duración " + T + "s)");
+        playGame(board, players, params, events, stats, metrics);
+        return finishGame(params, players, metrics, again ? "PARTIDA COMPLETA" : "DE LA PARTIDA",
+                again ? ResultsStore.Kind.COMPLETA : ResultsStore.Kind.PARTIDA);
+    }
 
+    // Corre la partida con un hilo por jugador y por robot sobre el tablero ya
+    // armado. Termina a los T segundos o cuando cae el anteúltimo jugador vivo:
+    // cada hilo de jugador que termina muerto descuenta un latch, sin sondear.
+    // Deja el checkpoint guardado y el bus de eventos cerrado.
+    private static void playGame(Board board, List<Player> players, Tournament.GameParams params,
+                                 EventBus events, EventStats stats, GameMetrics metrics) throws InterruptedException {
+        Thread coinBot = GameThreads.newThread(new Robot(board, Booster.COIN, params.ymin(), params.ymax()), "RobotMonedas");
+        Thread healBot = GameThreads.newThread(new Robot(board, Booster.HEAL, params.xmin(), params.xmax()), "RobotVidas");
+        Thread badBot  = GameThreads.newThread(new Robot(board, Booster.POISON, params.wmin(), params.wmax()), "RobotMalo");
+
+        int alive = 0;
+        for (Player p : players) if (p.lifes() > 0) alive++;
+        CountDownLatch deaths = new CountDownLatch(Math.max(0, alive - 1));
         List<Thread> threads = new ArrayList<>();
         for (Player p : players) {
-            Thread t = new Thread(p, "Player-" + p.name());
+            if (p.lifes() <= 0) continue;
+            Thread t = GameThreads.newThread(() -> {
+                try {
+                    p.run();
+                } finally {
+                    if (p.lifes() <= 0) deaths.countDown();
+                }
+            }, "Player-" + p.name());
             threads.add(t);
         }
 
         final boolean[] running = { true };
-        Thread display = new Thread(() -> {
-            try {
-                while (running[0]) {
-                    System.out.println();
-                    printBoard(board);
-                    Thread.sleep(300);
-                }
-            } catch (InterruptedException ignored) {}
-        }, "Display");
+        Thread display = newDisplay(board, running);
 
         coinBot.start();
         healBot.start();
         badBot.start();
         display.start();
 
-        for (Thread t : threads) {
-            t.start();
-        }
-
-        System.out.println("\n>>> ¡Nueva partida completa iniciada con " + M + " jugadores! (duración " + T + "s)");
+        for (Thread t : threads) t.start();
 
-        long deadline = System.currentTimeMillis() + T * 1000L;
-        while (System.currentTimeMillis() < deadline) {
-            int alive = 0;
-            for (Player p : players) if (p.lifes() > 0) alive++;
-            if (alive <= 1) break;
-            Thread.sleep(200);
-        }
+        deaths.await(params.t() * 1000L, TimeUnit.MILLISECONDS);
 
         for (Player p : players) p.stopGracefully();
         coinBot.interrupt(); healBot.interrupt(); badBot.interrupt();
-        running[0] = false; display.interrupt();
+        running[0] = false; display.interrupt(); display.join(1000);
 
         for (Thread t : threads) t.join(2000);
+        saveCheckpoint(board, players);
+        for (Player p : players) p.finish();
+        closeEventBus(events, stats, players);
+    }
 
-        players.sort((a,b) -> {
-            int aliveA = a.lifes() > 0 ? 1 : 0;
-            int aliveB = b.lifes() > 0 ? 1 : 0;
-            if (aliveA != aliveB) return Integer.compare(aliveB, aliveA);
-            if (a.coins() != b.coins()) return Integer.compare(b.coins(), a.coins());
-            if (a.lifes() != b.lifes()) return Integer.compare(b.lifes(), a.lifes());
-            return a.name().compareToIgnoreCase(b.name());
-        });
+    // Ordena el ranking, lo imprime y lo guarda en el archivo de resultados
+    private static Round finishGame(Tournament.GameParams params, List<Player> players, GameMetrics metrics,
+                                    String title, ResultsStore.Kind kind) {
+        players.sort(Simulation.RANKING);
 
         StringBuilder report = new StringBuilder();
-        report.append("==== RESULTADOS PARTIDA COMPLETA ====\n");
+        report.append("==== RESULTADOS ").append(title).append(" ====\n");
         for (int i = 0; i < players.size(); i++) {
             Player p = players.get(i);
-            report.append(String.format("%d) %s  | monedas=%d | vidas=%d%n", i+1, p.name(), p.coins(), p.lifes()));
+            report.append(String.format("%d) %s  | monedas=%d | vidas=%d%n", i + 1, p.name(), p.coins(), p.lifes()));
         }
 
         System.out.println("\n" + report);
+        if (metrics != null) System.out.println(metrics.dump());
 
-        String filename = "partida_completa_" + java.time.LocalDateTime.now().toString().replace(':','-') + ".txt";
-        try (PrintWriter out = new PrintWriter(new FileWriter(filename, false))) {
-            out.print(report.toString());
-        }
-        System.out.println("Log guardado en: " + filename);
-
-        askForNewGame(players, N, T, initial_lifes, Zmin, Zmax, Ymin, Ymax, Xmin, Xmax, Wmin, Wmax, H, sc);
+        saveResult(kind, players);
+        return new Round(params, players);
     }
 
     static int readInt(Scanner sc, int min, int max, int dflt) {
@@ -1,16 +1,82 @@
 package Objects;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class Board {
-    private final Cell[][] grid;
+    private final CellStore store;
+    private final StripedLocks locks;
+    // Solo en modo sin locks (lockFreeMoves): mismo objeto que store
+    private final PackedCellStore packed;
     private final int rows, cols, total;
 
+    // Celdas sin jugador ni booster, para muestrear en O(1)
+    private final FreeCellIndex free;
+    private static final int FREE_SEGMENTS = 64;
+    private static final int SAMPLE_TRIES = 8;
+
+    // Boosters vivos por tipo, para consultas por cercanía
+    private final BoosterIndex boosters;
+
+    // Cantidad de jugadores en el vecindario (radio densityRadius) de cada celda
+    private final int densityRadius;
+    private final AtomicIntegerArray density;
+
+    // Jugadores registrados en el tablero, por id (el 0 es "celda vacía")
+    private volatile Player[] players = new Player[8];
+    private int nextPlayerId = 1;
+
     // Inmutables
     private final AtomicInteger coinCells = new AtomicInteger(0);
     private final AtomicInteger healItems = new AtomicInteger(0);
     private final AtomicInteger traps = new AtomicInteger(0);
+    private final LongAdder moves = new LongAdder();
+
+    // snapshot() por copia en escritura, en regiones de 64 celdas seguidas. Cada
+    // escritura anota su entrada y salida en las regiones que toca (a lo sumo
+    // dos, ver beginWrite). Mientras hay una foto en curso, una escritura que la
+    // ve copia primero las regiones que todavía no se copiaron: la foto guarda el
+    // estado previo y la escritura queda afuera. Copiar una región solo espera a
+    // las escrituras que empezaron antes de la foto en esa región; nadie espera
+    // a que se copie el tablero entero.
+    private static final int REGION_SHIFT = 6;
+    // Por región, en su propia línea de caché: iniciadas en r*8, terminadas en r*8+1
+    private static final int REGION_STRIDE = 8;
+    private final int regions;
+    private final AtomicLongArray regionWrites;
+    private volatile Capture capture;
+    private final Object snapshotLock = new Object();
+
+    // Celdas modificadas, una copia por consumidor (BoardRenderer, SpectatorServer)
+    private volatile DirtyCells[] watchers = new DirtyCells[0];
+
+    // Destino de los eventos de la partida (null = no se publican)
+    private volatile EventBus events;
+
+    // Evento de la escritura en curso de cada hilo: el lugar en el bus se reserva
+    // con la celda tomada y el evento se completa en endWrite, ya sin locks.
+    // Cada escritura publica a lo sumo un evento.
+    private static final class PendingEvent {
+        EventBus bus;
+        long seq = -1;
+        GameEvent.Type type;
+        int playerId, cell, value;
+        Booster booster;
+    }
+    private final ThreadLocal<PendingEvent> pendingEvent = ThreadLocal.withInitial(PendingEvent::new);
+
+    // Contadores e histogramas del motor (null = no se mide nada)
+    private volatile GameMetrics metrics;
+
+    // Azar fijo para simulaciones de un solo hilo reproducibles (null = ThreadLocalRandom)
+    private volatile Random random;
 
     // Visibles inmediatamente entre hilos
     private volatile int targetCoinCells;
@@ -18,14 +84,40 @@ public class Board {
     private volatile int targetHeals;
 
     public Board(int rows, int cols) {
+        this(rows, cols, BoardConfig.defaults());
+    }
+
+    public Board(int rows, int cols, int densityRadius) {
+        this(rows, cols, BoardConfig.defaults().withDensityRadius(densityRadius));
+    }
+
+    public Board(int rows, int cols, BoardConfig config) {
         this.rows = rows;
         this.cols = cols;
         this.total = rows * cols;
-        this.grid = new Cell[rows][cols];
-        for (int r = 0; r < rows; r++) {
-            for (int c = 0; c < cols; c++) {
-                grid[r][c] = new Cell(r, c);
-            }
+        this.densityRadius = Math.max(0, config.densityRadius());
+        this.density = new AtomicIntegerArray(total);
+        this.free = new FreeCellIndex(total, FREE_SEGMENTS);
+        this.boosters = new BoosterIndex(rows, cols);
+        this.regions = Math.max(1, (total + (1 << REGION_SHIFT) - 1) >>> REGION_SHIFT);
+        this.regionWrites = new AtomicLongArray(regions * REGION_STRIDE);
+        this.store = switch (config.storage()) {
+            case PACKED -> new PackedCellStore(rows, cols);
+            default -> new CellArrayStore(rows, cols);
+        };
+        if (config.lockFreeMoves() && config.storage() != BoardConfig.Storage.PACKED) {
+            throw new IllegalArgumentException("lockFreeMoves requiere almacenamiento PACKED");
+        }
+        this.packed = config.lockFreeMoves() ? (PackedCellStore) store : null;
+        int stripes = config.lockStripes();
+        if (packed != null) {
+            this.locks = new StripedLocks(1, false);
+        } else if (stripes > 0) {
+            this.locks = new StripedLocks(Math.min(stripes, Math.max(1, total)), true);
+        } else if (config.storage() == BoardConfig.Storage.PACKED) {
+            this.locks = new StripedLocks(Math.min(BoardConfig.DEFAULT_STRIPES, Math.max(1, total)), true);
+        } else {
+            this.locks = new StripedLocks(total, false);
         }
         this.targetCoinCells = Math.max(1, (int)Math.floor(total * 0.10));
         this.targetTraps = Math.max(1, (int)Math.floor(total * 0.10));
@@ -35,201 +127,726 @@ public class Board {
     public int rows() { return rows; }
     public int cols() { return cols; }
     public int total() { return total; }
+    public int densityRadius() { return densityRadius; }
+    public int lockStripes() { return packed != null ? 0 : locks.stripes(); }
+    public boolean isLockFree() { return packed != null; }
+    public long bytesPerCell() {
+        return store.bytesPerCell() + free.bytesPerCell()
+                + (locks.bytes() + regions * REGION_STRIDE * 8L + total - 1) / Math.max(1, total);
+    }
+    public int freeCells() { return free.size(); }
+    // Movimientos exitosos desde que se creó el tablero
+    public long successfulMoves() { return moves.sum(); }
+
+    // Solo para uso desde un único hilo (Simulation): Random no es thread-safe
+    public void useRandom(Random random) { this.random = random; }
+
+    private Random rnd() {
+        Random r = random;
+        return r != null ? r : ThreadLocalRandom.current();
+    }
 
     public void setTargetHeals(int x) { this.targetHeals = Math.max(0, x); }
     public int getTargetHeals() { return targetHeals; }
     public int getTargetCoinCells() { return targetCoinCells; }
     public int getTargetTraps() { return targetTraps; }
 
+    // Para Checkpoint: objetivos guardados de una partida anterior
+    void setTargets(int coinCells, int heals, int traps) {
+        this.targetCoinCells = Math.max(0, coinCells);
+        this.targetHeals = Math.max(0, heals);
+        this.targetTraps = Math.max(0, traps);
+    }
+
+    private int idOf(Player p) {
+        int id = p.boardId();
+        if (id != 0) return id;
+        synchronized (this) {
+            id = p.boardId();
+            if (id != 0) return id;
+            id = nextPlayerId++;
+            if (id >= players.length) players = Arrays.copyOf(players, players.length * 2);
+            players[id] = p;
+            p.setBoardId(id);
+            return id;
+        }
+    }
+
+    // Para Crowd: reserva n ids seguidos sin objeto Player. Devuelve el primero.
+    synchronized int reserveIds(int n) {
+        int first = nextPlayerId;
+        nextPlayerId += n;
+        return first;
+    }
+
+    public void publishTo(EventBus events) { this.events = events; }
+    public EventBus events() { return events; }
+    public void recordMetrics(GameMetrics metrics) { this.metrics = metrics; }
+    public GameMetrics metrics() { return metrics; }
+
+    public Player playerById(int id) {
+        Player[] ps = players;
+        return id > 0 && id < ps.length ? ps[id] : null;
+    }
+
     public Pos randomFreeCell() {
-        for (int tries = 0; tries < total * 3; tries++) {
-            int r = ThreadLocalRandom.current().nextInt(rows);
-            int c = ThreadLocalRandom.current().nextInt(cols);
-            Cell cell = grid[r][c];
-            if (cell.lock().tryLock()) {
+        int tries = 0;
+        Pos found = null;
+        while (found == null && tries < SAMPLE_TRIES) {
+            tries++;
+            int i = free.sample(rnd());
+            if (i < 0) break;
+            if (packed != null) {
+                if (packed.get(i) == 0) found = new Pos(i / cols, i % cols);
+                continue;
+            }
+            ReentrantLock lock = locks.lock(i);
+            if (lock.tryLock()) {
                 try {
-                    if (!cell.hasPlayer() && cell.content() == Booster.NONE) {
-                        return new Pos(r, c);
+                    if (store.occupant(i) == 0 && store.content(i) == Booster.NONE) {
+                        found = new Pos(i / cols, i % cols);
                     }
                 } finally {
-                    cell.lock().unlock();
+                    lock.unlock();
                 }
             }
         }
-        return null;
+        GameMetrics m = metrics;
+        if (m != null) m.freeCell(tries);
+        return found;
     }
 
     public boolean tryPlaceCoin(int amount) {
         if (coinCells.get() >= targetCoinCells) return false;
+        return tryPlace(Booster.COIN, amount, coinCells);
+    }
+
+    public boolean tryPlaceHeal() {
+        if (healItems.get() >= targetHeals) return false;
+        return tryPlace(Booster.HEAL, 0, healItems);
+    }
+
+    public boolean tryPlaceTrap() {
+        if (traps.get() >= targetTraps) return false;
+        return tryPlace(Booster.POISON, 0, traps);
+    }
+
+    private boolean tryPlace(Booster b, int amount, AtomicInteger counter) {
         Pos p = randomFreeCell();
         if (p == null) return false;
-        Cell cell = grid[p.r()][p.c()];
-        cell.lock().lock();
+        int i = p.r() * cols + p.c();
+        beginWrite(i, -1);
         try {
-            if (!cell.hasPlayer() && cell.content() == Booster.NONE) {
-                cell.setCoin(amount);
-                coinCells.incrementAndGet();
-                return true;
-            }
+            return placeAt(i, b, amount, counter);
         } finally {
-            cell.lock().unlock();
+            endWrite(i, -1);
         }
-        return false;
     }
 
-    public boolean tryPlaceHeal() {
-        if (healItems.get() >= targetHeals) return false;
-        Pos p = randomFreeCell();
-        if (p == null) return false;
-        Cell cell = grid[p.r()][p.c()];
-        cell.lock().lock();
+    private boolean placeAt(int i, Booster b, int amount, AtomicInteger counter) {
+        if (packed != null) return tryPlaceLockFree(i, b, amount, counter);
+        ReentrantLock lock = locks.lock(i);
+        lock.lock();
         try {
-            if (!cell.hasPlayer() && cell.content() == Booster.NONE) {
-                cell.setHeal();
-                healItems.incrementAndGet();
+            if (store.occupant(i) == 0 && store.content(i) == Booster.NONE) {
+                store.setBooster(i, b, amount);
+                free.remove(i);
+                boosters.add(b, i);
+                markDirty(i);
+                counter.incrementAndGet();
+                publish(GameEvent.Type.BOOSTER, 0, i, b, b == Booster.COIN ? amount : 0);
                 return true;
             }
         } finally {
-            cell.lock().unlock();
+            lock.unlock();
         }
         return false;
     }
 
-    public boolean tryPlaceTrap() {
-        if (traps.get() >= targetTraps) return false;
-        Pos p = randomFreeCell();
-        if (p == null) return false;
-        Cell cell = grid[p.r()][p.c()];
-        cell.lock().lock();
+    // Para Replay: pone el booster en una celda dada, sin mirar los objetivos
+    boolean placeBoosterAt(Booster b, int r, int c, int amount) {
+        AtomicInteger counter = b == Booster.COIN ? coinCells : b == Booster.HEAL ? healItems : traps;
+        int i = r * cols + c;
+        beginWrite(i, -1);
         try {
-            if (!cell.hasPlayer() && cell.content() == Booster.NONE) {
-                cell.setPoison();
-                traps.incrementAndGet();
-                return true;
-            }
+            return placeAt(i, b, amount, counter);
         } finally {
-            cell.lock().unlock();
+            endWrite(i, -1);
+        }
+    }
+
+    // Para Replay: coloca al jugador en una celda dada si está libre
+    boolean placePlayerAt(Player p, int r, int c) {
+        if (!occupyIfFree(r * cols + c, idOf(p), p.lifes())) return false;
+        p.setBoardCell(r * cols + c);
+        p.setPos(r, c);
+        return true;
+    }
+
+    // Se llama con la celda tomada: reserva el lugar en el bus, así el orden del
+    // bus respeta el orden real de los cambios sobre cada celda (Replay depende
+    // de eso). La reserva nunca espera; el evento se completa en endWrite.
+    private void publish(GameEvent.Type type, int playerId, int cell, Booster b, int value) {
+        EventBus bus = events;
+        if (bus == null) return;
+        PendingEvent e = pendingEvent.get();
+        e.bus = bus;
+        e.seq = bus.reserve();
+        e.type = type;
+        e.playerId = playerId;
+        e.cell = cell;
+        e.booster = b;
+        e.value = value;
+    }
+
+    // Fuera de toda sección crítica: acá sí puede esperar lugar en el bus (BLOCK)
+    private void flushEvent() {
+        PendingEvent e = pendingEvent.get();
+        if (e.bus == null) return;
+        EventBus bus = e.bus;
+        e.bus = null;
+        bus.publish(e.seq, e.type, e.playerId, e.cell / cols, e.cell % cols, e.booster, e.value);
+    }
+
+    // Reserva el lugar en el contador antes del CAS, así nunca supera el objetivo
+    // ni queda por debajo de los boosters realmente presentes.
+    private boolean tryPlaceLockFree(int i, Booster b, int amount, AtomicInteger counter) {
+        counter.incrementAndGet();
+        if (packed.cas(i, 0L, PackedCellStore.word(b, b == Booster.COIN ? amount : 0, 0))) {
+            publish(GameEvent.Type.BOOSTER, 0, i, b, b == Booster.COIN ? amount : 0);
+            free.remove(i);
+            boosters.add(b, i);
+            markDirty(i);
+            // Si alguien lo consumió antes del alta, no dejar una entrada vieja
+            if (PackedCellStore.booster(packed.get(i)) != b) boosters.remove(b, i);
+            return true;
         }
+        counter.decrementAndGet();
         return false;
     }
 
     public Booster movePlayerSafe(int r, int c, int nr, int nc, Player p) {
-        if (nr < 0 || nr >= rows || nc < 0 || nc >= cols) return Booster.NONE;
-        
-        if (r == nr && c == nc) return Booster.NONE;
-        
-        Cell from = grid[r][c];
-        Cell to = grid[nr][nc];
-
-        Cell first = from.row() * cols + from.col() <= to.row() * cols + to.col() ? from : to;
-        Cell second = first == from ? to : from;
-
-        first.lock().lock();
-        second.lock().lock();
+        if (!FlightEvents.MOVE.isEnabled()) return moveInSection(r, c, nr, nc, p);
+        FlightEvents.Move event = new FlightEvents.Move();
+        event.begin();
+        Booster b = moveInSection(r, c, nr, nc, p);
+        event.end();
+        if (event.shouldCommit()) {
+            event.playerId = p.boardId();
+            event.from = r * cols + c;
+            event.to = nr * cols + nc;
+            event.booster = b.name();
+            event.blocked = p.boardCell() != event.to;
+            event.commit();
+        }
+        return b;
+    }
+
+    private Booster moveInSection(int r, int c, int nr, int nc, Player p) {
+        int from = cellOrNone(r, c), to = cellOrNone(nr, nc);
+        beginWrite(from, to);
+        try {
+            return move(r, c, nr, nc, p);
+        } finally {
+            endWrite(from, to);
+        }
+    }
+
+    // Resultado de moveId cuando el jugador no se movió
+    static final int NOT_MOVED = -1;
+
+    private Booster move(int r, int c, int nr, int nc, Player p) {
+        if (nr < 0 || nr >= rows || nc < 0 || nc >= cols || (r == nr && c == nc)) {
+            GameMetrics m = metrics;
+            if (m != null) m.movesRejected.increment();
+            return Booster.NONE;
+        }
+        int res = moveId(r, c, nr, nc, idOf(p));
+        if (res == NOT_MOVED) return Booster.NONE;
+        p.setBoardCell(nr * cols + nc);
+        p.setPos(nr, nc);
+        Booster b = PackedCellStore.fromCode(res & 3);
+        // Dentro de la escritura, así snapshot() ve celda, vidas y monedas juntas
+        if (b == Booster.COIN && (res >>> 2) > 0) p.addCoins(res >>> 2);
+        else if (b == Booster.HEAL) p.addLife();
+        else if (b == Booster.POISON) p.loseLife();
+        return b;
+    }
+
+    // Para Crowd: mismo movimiento que movePlayerSafe pero solo con el id
+    int moveById(int from, int to, int id) {
+        int r = from / cols, c = from % cols, nr = to / cols, nc = to % cols;
+        if (to < 0 || to >= total || Math.abs(nr - r) + Math.abs(nc - c) != 1) {
+            GameMetrics m = metrics;
+            if (m != null) m.movesRejected.increment();
+            return NOT_MOVED;
+        }
+        beginWrite(from, to);
+        try {
+            return moveId(r, c, nr, nc, id);
+        } finally {
+            endWrite(from, to);
+        }
+    }
+
+    // Reglas del movimiento sobre las celdas. Devuelve NOT_MOVED o
+    // (monedas << 2) | código del booster que había en el destino.
+    private int moveId(int r, int c, int nr, int nc, int id) {
+        GameMetrics m = metrics;
+        int from = r * cols + c;
+        int to = nr * cols + nc;
+        if (packed != null) return moveLockFree(r, c, nr, nc, from, to, id, m);
+
+        int sf = locks.stripe(from), st = locks.stripe(to);
+        // Ambas celdas en el mismo stripe: un solo lock alcanza
+        ReentrantLock first = locks.lockAt(Math.min(sf, st));
+        ReentrantLock second = sf == st ? null : locks.lockAt(Math.max(sf, st));
+
+        lock(first, m);
+        if (second != null) lock(second, m);
         try {
-            if (to.hasPlayer()) return Booster.NONE;
-            
-            if (from.player() != p) return Booster.NONE;
-            
-            from.clearPlayer();
-            
-            to.setPlayer(p);
-            p.setPos(nr, nc);
-
-            Booster b = to.content();
-            int coinAmount = to.coinAmount();
+            if (store.occupant(to) != 0) {
+                if (m != null) m.movesBlocked.increment();
+                return NOT_MOVED;
+            }
+
+            if (store.occupant(from) != id) {
+                if (m != null) m.movesStale.increment();
+                return NOT_MOVED;
+            }
+
+            store.setOccupant(from, 0);
+            if (store.content(from) == Booster.NONE) free.add(from);
+
+            store.setOccupant(to, id);
+            free.remove(to);
+            adjustDensity(r, c, -1);
+            adjustDensity(nr, nc, 1);
+            moves.increment();
+            if (m != null) m.moves.increment();
+            markDirty(from);
+            markDirty(to);
+
+            Booster b = store.content(to);
+            int coinAmount = store.coinAmount(to);
+            publish(GameEvent.Type.MOVED, id, to, b, from);
             if (b != Booster.NONE) {
-                to.clearContent();
+                store.clearContent(to);
+                boosters.remove(b, to);
                 if (b == Booster.COIN) coinCells.decrementAndGet();
                 else if (b == Booster.HEAL) healItems.decrementAndGet();
                 else if (b == Booster.POISON) traps.decrementAndGet();
             }
-            if (b == Booster.COIN && coinAmount > 0) {
-                p.addCoins(coinAmount);
+            return (b == Booster.COIN ? coinAmount << 2 : 0) | PackedCellStore.code(b);
+        } finally {
+            if (second != null) second.unlock();
+            first.unlock();
+        }
+    }
+
+    // El destino se toma con un CAS que a la vez consume el booster; recién
+    // después se libera el origen. Solo el ganador del CAS descuenta el contador.
+    private int moveLockFree(int r, int c, int nr, int nc, int from, int to, int id, GameMetrics m) {
+        if (PackedCellStore.occupant(packed.get(from)) != id) {
+            if (m != null) m.movesStale.increment();
+            return NOT_MOVED;
+        }
+
+        long tw;
+        do {
+            tw = packed.get(to);
+            if (PackedCellStore.occupant(tw) != 0) {
+                if (m != null) m.movesBlocked.increment();
+                return NOT_MOVED;
             }
-            return b;
+        } while (!packed.cas(to, tw, PackedCellStore.word(Booster.NONE, 0, id)));
+        free.remove(to);
+        // Antes de soltar el origen, así nadie lo ocupa antes de este evento
+        publish(GameEvent.Type.MOVED, id, to, PackedCellStore.booster(tw), from);
+
+        long fw;
+        do {
+            fw = packed.get(from);
+            if (PackedCellStore.occupant(fw) != id) break;
+        } while (!packed.cas(from, fw, PackedCellStore.withOccupant(fw, 0)));
+        if (PackedCellStore.occupant(fw) == id) releaseLockFree(from);
+
+        adjustDensity(r, c, -1);
+        adjustDensity(nr, nc, 1);
+        moves.increment();
+        if (m != null) m.moves.increment();
+        markDirty(from);
+        markDirty(to);
+
+        Booster b = PackedCellStore.booster(tw);
+        if (b != Booster.NONE) boosters.remove(b, to);
+        if (b == Booster.COIN) coinCells.decrementAndGet();
+        else if (b == Booster.HEAL) healItems.decrementAndGet();
+        else if (b == Booster.POISON) traps.decrementAndGet();
+        return (b == Booster.COIN ? PackedCellStore.amount(tw) << 2 : 0) | PackedCellStore.code(b);
+    }
+
+    // Con métricas, mide la espera solo si el lock no estaba libre
+    private static void lock(ReentrantLock lock, GameMetrics m) {
+        if (m == null) {
+            lock.lock();
+        } else if (!lock.tryLock()) {
+            long t0 = System.nanoTime();
+            lock.lock();
+            m.lockWait.record(System.nanoTime() - t0);
+        }
+    }
+
+    // Celda vacía recién liberada: vuelve al índice, salvo que otro hilo ya la
+    // haya ocupado entre el CAS y el alta.
+    private void releaseLockFree(int i) {
+        if (free.add(i) && packed.get(i) != 0) free.remove(i);
+    }
+
+    // Primero muestrea celdas vacías en O(1); si no queda ninguna, prueba al azar
+    // cualquier celda sin jugador (aunque tenga booster). Devuelve false si no hay lugar.
+    public boolean placePlayerAtRandom(Player p) {
+        int i = placeIdAtRandom(idOf(p), p.lifes());
+        if (i < 0) return false;
+        p.setBoardCell(i);
+        p.setPos(i / cols, i % cols);
+        return true;
+    }
+
+    // Para Crowd: coloca el id en una celda libre al azar. Devuelve la celda, -1 si no hay lugar.
+    int placeIdAtRandom(int id, int lives) {
+        for (int tries = 0; tries < SAMPLE_TRIES; tries++) {
+            int i = free.sample(rnd());
+            if (i < 0) break;
+            if (occupyIfFree(i, id, lives)) return i;
+        }
+        for (int tries = 0; tries < total * 3; tries++) {
+            int i = rnd().nextInt(total);
+            if (occupyIfFree(i, id, lives)) return i;
+        }
+        return -1;
+    }
+
+    private boolean occupyIfFree(int i, int id, int lives) {
+        beginWrite(i, -1);
+        try {
+            return occupy(i, id, lives);
         } finally {
-            second.lock().unlock();
-            first.lock().unlock();
+            endWrite(i, -1);
         }
     }
 
-    public void placePlayerAtRandom(Player p) {
-        while (true) {
-            int r = ThreadLocalRandom.current().nextInt(rows);
-            int c = ThreadLocalRandom.current().nextInt(cols);
-            Cell cell = grid[r][c];
-            if (cell.lock().tryLock()) {
-                try {
-                    if (!cell.hasPlayer()) {
-                        cell.setPlayer(p);
-                        p.setPos(r, c);
-                        return;
-                    }
-                } finally {
-                    cell.lock().unlock();
+    private boolean occupy(int i, int id, int lives) {
+        int r = i / cols, c = i % cols;
+        if (packed != null) {
+            long w = packed.get(i);
+            if (PackedCellStore.occupant(w) == 0 && packed.cas(i, w, PackedCellStore.withOccupant(w, id))) {
+                free.remove(i);
+                adjustDensity(r, c, 1);
+                markDirty(i);
+                publish(GameEvent.Type.PLACED, id, i, Booster.NONE, lives);
+                return true;
+            }
+            return false;
+        }
+        ReentrantLock lock = locks.lock(i);
+        if (lock.tryLock()) {
+            try {
+                if (store.occupant(i) == 0) {
+                    store.setOccupant(i, id);
+                    free.remove(i);
+                    adjustDensity(r, c, 1);
+                    markDirty(i);
+                    publish(GameEvent.Type.PLACED, id, i, Booster.NONE, lives);
+                    return true;
                 }
+            } finally {
+                lock.unlock();
             }
         }
+        return false;
     }
 
     public boolean isOccupied(int r, int c) {
-        return grid[r][c].hasPlayer();
+        return store.occupant(r * cols + c) != 0;
     }
-    
+
+    // Solo toca la celda que el índice jugador -> celda tiene registrada
     public void clearAllPlayerPositions(Player p) {
-        for (int r = 0; r < rows; r++) {
-            for (int c = 0; c < cols; c++) {
-                Cell cell = grid[r][c];
-                cell.lock().lock();
-                try {
-                    if (cell.player() == p) {
-                        cell.clearPlayer();
-                    }
-                } finally {
-                    cell.lock().unlock();
-                }
+        int id = p.boardId();
+        int i = p.boardCell();
+        if (id == 0 || i < 0) return;
+        beginWrite(i, -1);
+        try {
+            if (clear(i, id)) p.setBoardCell(-1);
+        } finally {
+            endWrite(i, -1);
+        }
+    }
+
+    // Para Crowd: saca al id de la celda i si sigue ahí
+    boolean clearById(int i, int id) {
+        beginWrite(i, -1);
+        try {
+            return clear(i, id);
+        } finally {
+            endWrite(i, -1);
+        }
+    }
+
+    private boolean clear(int i, int id) {
+        int r = i / cols, c = i % cols;
+        if (packed != null) {
+            long w = packed.get(i);
+            if (PackedCellStore.occupant(w) != id) return false;
+            // Una celda ocupada solo la cambia su dueño: el CAS no compite y el evento va antes
+            publish(GameEvent.Type.REMOVED, id, i, Booster.NONE, 0);
+            if (!packed.cas(i, w, PackedCellStore.withOccupant(w, 0))) return false;
+            adjustDensity(r, c, -1);
+            markDirty(i);
+            if (PackedCellStore.booster(w) == Booster.NONE) releaseLockFree(i);
+            return true;
+        }
+        ReentrantLock lock = locks.lock(i);
+        lock.lock();
+        try {
+            if (store.occupant(i) != id) return false;
+            store.setOccupant(i, 0);
+            publish(GameEvent.Type.REMOVED, id, i, Booster.NONE, 0);
+            adjustDensity(r, c, -1);
+            markDirty(i);
+            if (store.content(i) == Booster.NONE) free.add(i);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void markDirty(int i) {
+        for (DirtyCells d : watchers) d.mark(i);
+    }
+
+    // Registra un consumidor de cambios: desde ahora recibe toda celda que se
+    // escriba. Lo anterior no está, así que conviene leer el tablero entero una vez.
+    synchronized DirtyCells watchChanges() {
+        DirtyCells d = new DirtyCells(total);
+        DirtyCells[] w = Arrays.copyOf(watchers, watchers.length + 1);
+        w[w.length - 1] = d;
+        watchers = w;
+        return d;
+    }
+
+    synchronized void stopWatching(DirtyCells d) {
+        DirtyCells[] w = watchers;
+        for (int k = 0; k < w.length; k++) {
+            if (w[k] != d) continue;
+            DirtyCells[] rest = Arrays.copyOf(w, w.length - 1);
+            System.arraycopy(w, k + 1, rest, k, w.length - k - 1);
+            watchers = rest;
+            return;
+        }
+    }
+
+    // Lecturas sin lock para dibujar: un valor puede quedar viejo, pero la
+    // celda vuelve a marcarse sucia con el próximo cambio.
+    int occupantAt(int i) { return store.occupant(i); }
+    Booster contentAt(int i) { return store.content(i); }
+    int amountAt(int i) { return store.coinAmount(i); }
+
+    // Jugadores dentro del cuadrado de radio densityRadius centrado en (r,c), en O(1)
+    public int playerDensity(int r, int c) {
+        return density.get(r * cols + c);
+    }
+
+    private void adjustDensity(int r, int c, int delta) {
+        int r0 = Math.max(0, r - densityRadius), r1 = Math.min(rows - 1, r + densityRadius);
+        int c0 = Math.max(0, c - densityRadius), c1 = Math.min(cols - 1, c + densityRadius);
+        for (int i = r0; i <= r1; i++) {
+            for (int j = c0; j <= c1; j++) {
+                density.getAndAdd(i * cols + j, delta);
             }
         }
     }
 
+    // Los k boosters de ese tipo más cercanos a (r,c) por distancia Manhattan
+    public List<Pos> nearest(Booster type, int r, int c, int k) {
+        return boosters.nearest(type, r, c, k);
+    }
+
+    // Boosters de ese tipo a distancia Manhattan <= radius de (r,c)
+    public List<Pos> within(Booster type, int r, int c, int radius) {
+        return boosters.within(type, r, c, radius);
+    }
+
     public Booster cellContent(int r, int c) {
-        return grid[r][c].content();
+        return store.content(r * cols + c);
     }
 
     public int cellCoinAmount(int r, int c) {
-        return grid[r][c].coinAmount();
+        return store.coinAmount(r * cols + c);
     }
 
-    public String[][] snapshotWithColors() {
-        String[][] s = new String[rows][cols];
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                s[i][j] = "|  |";
-            }
+    // Celda r*cols+c, o -1 si está fuera del tablero (el movimiento se rechaza igual)
+    private int cellOrNone(int r, int c) {
+        return r < 0 || r >= rows || c < 0 || c >= cols ? -1 : r * cols + c;
+    }
+
+    // Regiones de las celdas a y b (-1 = ninguna); la segunda es -1 si coincide con la primera
+    private static int regionOf(int a) { return a < 0 ? -1 : a >>> REGION_SHIFT; }
+    private static int otherRegion(int a, int b) {
+        int rb = regionOf(b);
+        return rb == regionOf(a) ? -1 : rb;
+    }
+
+    // Toda escritura declara las celdas que va a tocar. Si ve una foto en curso
+    // copia antes las regiones de esas celdas que falten.
+    private void beginWrite(int a, int b) {
+        int ra = regionOf(a), rb = otherRegion(a, b);
+        if (ra >= 0) regionWrites.getAndIncrement(ra * REGION_STRIDE);
+        if (rb >= 0) regionWrites.getAndIncrement(rb * REGION_STRIDE);
+        Capture cap = capture;
+        if (cap != null) cap.before(ra, rb);
+    }
+
+    private void endWrite(int a, int b) {
+        int ra = regionOf(a), rb = otherRegion(a, b);
+        if (ra >= 0) regionWrites.getAndIncrement(ra * REGION_STRIDE + 1);
+        if (rb >= 0) regionWrites.getAndIncrement(rb * REGION_STRIDE + 1);
+        flushEvent();
+    }
+
+    // Foto en curso. Cada región la copia una sola vez quien llegue primero: el
+    // hilo de snapshot() o una escritura que está por cambiarla.
+    private final class Capture {
+        static final int PENDING = 0, COPYING = 1, COPIED = 2;
+        // Por celda: se reusan los de una foto anterior si se la devuelve (snapshot(reuse))
+        final int[] occupants;
+        final byte[] contents;
+        final int[] amounts;
+        // Por id de jugador: vidas y monedas leídas al copiar la región de su celda
+        final Player[] ps;
+        final int[] lives, coins;
+        final boolean[] onBoard;
+        final AtomicIntegerArray state = new AtomicIntegerArray(regions);
+        // Escrituras que vieron esta foto y esperan que se copie la región
+        final AtomicIntegerArray after = new AtomicIntegerArray(regions);
+        // Escrituras terminadas en cada región al copiarla
+        final long[] finished = new long[regions];
+
+        Capture(BoardSnapshot reuse) {
+            boolean same = reuse != null && reuse.rows() == rows && reuse.cols() == cols;
+            occupants = same ? reuse.occupants : new int[total];
+            contents = same ? reuse.contents : new byte[total];
+            amounts = same ? reuse.amounts : new int[total];
+            Player[] now = players;
+            int n = now.length;
+            boolean sameIds = reuse != null && reuse.players.length == n;
+            ps = sameIds ? reuse.players : new Player[n];
+            System.arraycopy(now, 0, ps, 0, n);
+            lives = sameIds ? reuse.lives : new int[n];
+            coins = sameIds ? reuse.coins : new int[n];
+            onBoard = new boolean[n];
         }
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                Cell cell = grid[i][j];
-                cell.lock().lock();
-                try {
-                    if (cell.hasPlayer()) {
-                        Player p = cell.player();
-                        String initials = p.getInitials();
-                        String color = p.getColorCode();
-                        String reset = Player.getResetColor();
-                        s[i][j] = "|" + color + initials + reset + "|";
-                    } else {
-                        Booster b = cell.content();
-                        if (b == Booster.HEAL) s[i][j] = "|++|";
-                        else if (b == Booster.COIN) s[i][j] = "|$$|";
-                    }
-                } finally {
-                    cell.lock().unlock();
+
+        void before(int ra, int rb) {
+            if (ra >= 0) after.incrementAndGet(ra);
+            if (rb >= 0) after.incrementAndGet(rb);
+            if (ra >= 0) copy(ra);
+            if (rb >= 0) copy(rb);
+            if (ra >= 0) after.decrementAndGet(ra);
+            if (rb >= 0) after.decrementAndGet(rb);
+        }
+
+        void copy(int r) {
+            if (state.get(r) == COPIED) return;
+            if (!state.compareAndSet(r, PENDING, COPYING)) {
+                // Otro hilo la está copiando: son a lo sumo 64 celdas
+                while (state.get(r) != COPIED) Thread.yield();
+                return;
+            }
+            // En vuelo en la región quedan las escrituras anteriores a la foto y
+            // las que esperan en after; se espera a que terminen las primeras
+            long done;
+            while (true) {
+                int waiting = after.get(r);
+                done = regionWrites.get(r * REGION_STRIDE + 1);
+                if (regionWrites.get(r * REGION_STRIDE) - done == waiting) break;
+                Thread.yield();
+            }
+            int from = r << REGION_SHIFT, to = Math.min(total, from + (1 << REGION_SHIFT));
+            for (int i = from; i < to; i++) {
+                if (packed != null) {
+                    long w = packed.get(i);
+                    occupants[i] = PackedCellStore.occupant(w);
+                    contents[i] = (byte) PackedCellStore.code(PackedCellStore.booster(w));
+                    amounts[i] = PackedCellStore.amount(w);
+                } else {
+                    occupants[i] = store.occupant(i);
+                    contents[i] = (byte) PackedCellStore.code(store.content(i));
+                    amounts[i] = store.coinAmount(i);
+                }
+                // Un jugador solo cambia de vidas o monedas al moverse, y eso toca
+                // su celda: hasta que esta región esté copiada no cambian. Cada
+                // jugador está en una sola celda de la foto, así que un solo hilo
+                // escribe su casillero.
+                int id = occupants[i];
+                Player p = id > 0 && id < ps.length ? ps[id] : null;
+                if (p != null) {
+                    lives[id] = p.lifes();
+                    coins[id] = p.coins();
+                    onBoard[id] = true;
                 }
             }
+            finished[r] = done;
+            state.set(r, COPIED);
+        }
+
+        BoardSnapshot build() {
+            int[] counts = new int[4];
+            for (byte code : contents) counts[code]++;
+            long version = 0;
+            for (long f : finished) version += f;
+            // Los que no están en el tablero ya no cambian
+            for (int id = 1; id < ps.length; id++) {
+                if (onBoard[id]) continue;
+                Player p = ps[id];
+                lives[id] = p != null ? p.lifes() : 0;
+                coins[id] = p != null ? p.coins() : 0;
+            }
+            return new BoardSnapshot(rows, cols, version, occupants, contents, amounts, ps,
+                    lives, coins, counts[1], counts[2], counts[3]);
+        }
+    }
+
+    // Foto inmutable y consistente de ocupación, boosters y contadores, sin
+    // tomar ningún lock de celda ni frenar a los jugadores (ver Capture).
+    public BoardSnapshot snapshot() {
+        return snapshot(null);
+    }
+
+    // Igual, pero reusando los arreglos de una foto anterior del mismo tablero,
+    // que el que llama ya no va a usar: quien saca fotos seguido no genera basura
+    // del tamaño del tablero en cada una.
+    public BoardSnapshot snapshot(BoardSnapshot reuse) {
+        synchronized (snapshotLock) {
+            Capture cap = new Capture(reuse);
+            capture = cap;
+            try {
+                for (int r = 0; r < regions; r++) cap.copy(r);
+            } finally {
+                capture = null;
+            }
+            return cap.build();
+        }
+    }
+
+    // La foto de snapshotWithColors no sale de acá, así que se reusa siempre
+    private BoardSnapshot spare;
+
+    public String[][] snapshotWithColors() {
+        synchronized (snapshotLock) {
+            spare = snapshot(spare);
+            return spare.withColors();
         }
-        return s;
     }
-    
 }
@@ -0,0 +1,24 @@
+package Objects;
+
+// Opciones de construcción de un Board
+public record BoardConfig(Storage storage, int densityRadius, int lockStripes, boolean lockFreeMoves) {
+
+    public enum Storage {
+        CELLS,   // una Cell por casilla
+        PACKED   // un long por casilla en un arreglo primitivo
+    }
+
+    // Stripes por defecto cuando lockStripes == 0 y el almacenamiento es PACKED
+    public static final int DEFAULT_STRIPES = 1024;
+
+    public static BoardConfig defaults() {
+        return new BoardConfig(Storage.CELLS, 2, 0, false);
+    }
+
+    public BoardConfig withStorage(Storage s) { return new BoardConfig(s, densityRadius, lockStripes, lockFreeMoves); }
+    public BoardConfig withDensityRadius(int radius) { return new BoardConfig(storage, radius, lockStripes, lockFreeMoves); }
+    // 0 = automático (un lock por celda con CELLS, DEFAULT_STRIPES con PACKED)
+    public BoardConfig withLockStripes(int stripes) { return new BoardConfig(storage, densityRadius, Math.max(0, stripes), lockFreeMoves); }
+    // Movimientos y colocaciones con CAS sobre la palabra de la celda; requiere PACKED
+    public BoardConfig withLockFreeMoves(boolean on) { return new BoardConfig(storage, densityRadius, lockStripes, on); }
+}
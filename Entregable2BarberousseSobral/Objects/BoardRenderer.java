@@ -0,0 +1,122 @@
+package Objects;
+
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+// Dibuja el tablero de forma incremental: el primer cuadro es completo y los
+// siguientes solo reescriben las celdas que cambiaron (su propio DirtyCells), con
+// secuencias ANSI para mover el cursor. Todo se arma en un buffer reutilizable
+// y sale en una sola escritura por cuadro.
+//
+// El tablero queda fijo arriba y debajo se define una región de scroll para
+// que los mensajes de los jugadores sigan apareciendo sin pisarlo.
+public class BoardRenderer {
+    private static final byte[] EMPTY = "|  |".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEAL = "|++|".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] COIN = "|$$|".getBytes(StandardCharsets.US_ASCII);
+    private static final byte ESC = 0x1B;
+    // "|XX| " ocupa 5 columnas
+    private static final int CELL_WIDTH = 5;
+
+    private final Board board;
+    private final PrintStream out;
+    private final DirtyCells changed;
+    private final IntConsumer redraw = i -> drawCell(i, false);
+    // Último estado dibujado por celda: (ocupante << 2) | código de booster, -1 = nunca
+    private final int[] shown;
+    private byte[] buf = new byte[4096];
+    private int len;
+    private boolean first = true;
+
+    public BoardRenderer(Board board, PrintStream out) {
+        this.board = board;
+        this.out = out;
+        this.shown = new int[board.total()];
+        Arrays.fill(shown, -1);
+        this.changed = board.watchChanges();
+    }
+
+    public void renderFrame() {
+        len = 0;
+        if (first) {
+            first = false;
+            changed.clear();
+            csi(); text("2J");
+            csi(); num(board.rows() + 2); put((byte) 'r');
+            for (int i = 0; i < board.total(); i++) drawCell(i, true);
+            moveTo(board.rows() + 2, 1);
+        } else {
+            put(ESC); put((byte) '7');
+            int start = len;
+            changed.drain(redraw);
+            if (len == start) {
+                len = 0;
+                return;
+            }
+            put(ESC); put((byte) '8');
+        }
+        out.write(buf, 0, len);
+        out.flush();
+    }
+
+    // Quita la región de scroll y deja el cursor debajo de todo
+    public void close() {
+        board.stopWatching(changed);
+        len = 0;
+        csi(); put((byte) 'r');
+        moveTo(board.rows() + 2, 1);
+        out.write(buf, 0, len);
+        out.flush();
+    }
+
+    private void drawCell(int i, boolean force) {
+        int id = board.occupantAt(i);
+        Booster b = board.contentAt(i);
+        int state = (id << 2) | PackedCellStore.code(b);
+        if (!force && shown[i] == state) return;
+        shown[i] = state;
+
+        byte[] glyph;
+        Player p = id != 0 ? board.playerById(id) : null;
+        if (p != null) glyph = p.glyphBytes();
+        else if (b == Booster.HEAL) glyph = HEAL;
+        else if (b == Booster.COIN) glyph = COIN;
+        else glyph = EMPTY;
+
+        int cols = board.cols();
+        moveTo(i / cols + 1, (i % cols) * CELL_WIDTH + 1);
+        put(glyph);
+    }
+
+    private void moveTo(int row, int col) {
+        csi(); num(row); put((byte) ';'); num(col); put((byte) 'H');
+    }
+
+    private void csi() { put(ESC); put((byte) '['); }
+
+    private void text(String s) {
+        for (int k = 0; k < s.length(); k++) put((byte) s.charAt(k));
+    }
+
+    private void num(int v) {
+        if (v >= 10) num(v / 10);
+        put((byte) ('0' + v % 10));
+    }
+
+    private void put(byte[] bytes) {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buf, len, bytes.length);
+        len += bytes.length;
+    }
+
+    private void put(byte b) {
+        ensure(1);
+        buf[len++] = b;
+    }
+
+    private void ensure(int extra) {
+        if (len + extra > buf.length) buf = Arrays.copyOf(buf, Math.max(buf.length * 2, len + extra));
+    }
+}
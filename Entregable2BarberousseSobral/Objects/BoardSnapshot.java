@@ -0,0 +1,83 @@
+package Objects;
+
+// Foto inmutable del tablero en un instante: ocupantes, boosters, contadores y
+// las vidas y monedas de cada jugador en ese mismo instante.
+// Se obtiene con Board.snapshot() sin bloquear a los jugadores; no cambia hasta
+// que se la devuelve a Board.snapshot(reuse) para reusar sus arreglos.
+public final class BoardSnapshot {
+    private final int rows, cols;
+    private final long version;
+    // Package-private: Board.snapshot(reuse) vuelve a llenarlos para la foto siguiente
+    final int[] occupants;
+    final byte[] contents;
+    final int[] amounts;
+    final Player[] players;
+    final int[] lives, coins;
+    private final int coinCells, healItems, traps;
+
+    BoardSnapshot(int rows, int cols, long version, int[] occupants, byte[] contents, int[] amounts,
+                  Player[] players, int[] lives, int[] coins, int coinCells, int healItems, int traps) {
+        this.rows = rows;
+        this.cols = cols;
+        this.version = version;
+        this.occupants = occupants;
+        this.contents = contents;
+        this.amounts = amounts;
+        this.players = players;
+        this.lives = lives;
+        this.coins = coins;
+        this.coinCells = coinCells;
+        this.healItems = healItems;
+        this.traps = traps;
+    }
+
+    public int rows() { return rows; }
+    public int cols() { return cols; }
+    // Escrituras completadas que entran en la foto, sumadas por región del
+    // tablero (un movimiento entre dos regiones cuenta en las dos)
+    public long version() { return version; }
+
+    public int coinCells() { return coinCells; }
+    public int healItems() { return healItems; }
+    public int traps() { return traps; }
+
+    public boolean isOccupied(int r, int c) { return occupants[r * cols + c] != 0; }
+    public int occupantId(int r, int c) { return occupants[r * cols + c]; }
+
+    public Player player(int r, int c) {
+        int id = occupants[r * cols + c];
+        return id > 0 && id < players.length ? players[id] : null;
+    }
+
+    // Vidas y monedas del jugador con ese id al tomar la foto (0 si no existe)
+    public int lives(int id) { return id > 0 && id < lives.length ? lives[id] : 0; }
+    public int coins(int id) { return id > 0 && id < coins.length ? coins[id] : 0; }
+
+    public Booster content(int r, int c) { return PackedCellStore.fromCode(contents[r * cols + c]); }
+    public int coinAmount(int r, int c) { return amounts[r * cols + c]; }
+
+    // Acceso por índice r*cols+c para quien recorre la foto entera
+    int occupantAt(int i) { return occupants[i]; }
+    int contentCodeAt(int i) { return contents[i]; }
+    int amountAt(int i) { return amounts[i]; }
+    Player playerById(int id) { return id > 0 && id < players.length ? players[id] : null; }
+
+    // Misma salida que Board.snapshotWithColors
+    public String[][] withColors() {
+        String[][] s = new String[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                Player p = player(i, j);
+                if (p != null) {
+                    s[i][j] = "|" + p.getColorCode() + p.getInitials() + Player.getResetColor() + "|";
+                } else {
+                    Booster b = content(i, j);
+                    if (b == Booster.HEAL) s[i][j] = "|++|";
+                    else if (b == Booster.COIN) s[i][j] = "|$$|";
+                    else s[i][j] = "|  |";
+                }
+            }
+        }
+        return s;
+    }
+}
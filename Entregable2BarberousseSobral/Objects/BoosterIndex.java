@@ -0,0 +1,145 @@
+package Objects;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Índice espacial de boosters vivos por tipo. El tablero se parte en baldes de
+// BUCKET x BUCKET celdas y cada balde guarda las celdas de cada tipo, así las
+// consultas recorren solo los baldes cercanos y no el área completa.
+class BoosterIndex {
+    private static final int BUCKET = 8;
+    private static final Booster[] TYPES = { Booster.COIN, Booster.HEAL, Booster.POISON };
+
+    private static final class Bucket {
+        final ReentrantLock lock = new ReentrantLock();
+        int[] cells = new int[4];
+        int size;
+    }
+
+    private final int rows, cols, bRows, bCols;
+    // [tipo][balde]
+    private final Bucket[][] buckets;
+
+    BoosterIndex(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.bRows = (rows + BUCKET - 1) / BUCKET;
+        this.bCols = (cols + BUCKET - 1) / BUCKET;
+        this.buckets = new Bucket[TYPES.length][bRows * bCols];
+        for (Bucket[] byType : buckets) {
+            for (int b = 0; b < byType.length; b++) byType[b] = new Bucket();
+        }
+    }
+
+    private static int typeIndex(Booster t) {
+        return switch (t) {
+            case COIN -> 0;
+            case HEAL -> 1;
+            case POISON -> 2;
+            default -> -1;
+        };
+    }
+
+    private Bucket bucket(int t, int cell) {
+        int r = cell / cols, c = cell % cols;
+        return buckets[t][(r / BUCKET) * bCols + c / BUCKET];
+    }
+
+    void add(Booster type, int cell) {
+        int t = typeIndex(type);
+        if (t < 0) return;
+        Bucket b = bucket(t, cell);
+        b.lock.lock();
+        try {
+            for (int k = 0; k < b.size; k++) if (b.cells[k] == cell) return;
+            if (b.size == b.cells.length) b.cells = Arrays.copyOf(b.cells, b.size * 2);
+            b.cells[b.size++] = cell;
+        } finally {
+            b.lock.unlock();
+        }
+    }
+
+    void remove(Booster type, int cell) {
+        int t = typeIndex(type);
+        if (t < 0) return;
+        Bucket b = bucket(t, cell);
+        b.lock.lock();
+        try {
+            for (int k = 0; k < b.size; k++) {
+                if (b.cells[k] == cell) {
+                    b.cells[k] = b.cells[--b.size];
+                    return;
+                }
+            }
+        } finally {
+            b.lock.unlock();
+        }
+    }
+
+    // Agrega a out las celdas del balde (br,bc) a distancia Manhattan <= maxDist
+    private void collect(int t, int br, int bc, int r, int c, int maxDist, List<int[]> out) {
+        Bucket b = buckets[t][br * bCols + bc];
+        b.lock.lock();
+        try {
+            for (int k = 0; k < b.size; k++) {
+                int cell = b.cells[k];
+                int cr = cell / cols, cc = cell % cols;
+                int d = Math.abs(cr - r) + Math.abs(cc - c);
+                if (d <= maxDist) out.add(new int[] { d, cr, cc });
+            }
+        } finally {
+            b.lock.unlock();
+        }
+    }
+
+    List<Pos> within(Booster type, int r, int c, int radius) {
+        int t = typeIndex(type);
+        List<Pos> result = new ArrayList<>();
+        if (t < 0 || radius < 0) return result;
+        int br0 = Math.max(0, (r - radius) / BUCKET), br1 = Math.min(bRows - 1, (r + radius) / BUCKET);
+        int bc0 = Math.max(0, (c - radius) / BUCKET), bc1 = Math.min(bCols - 1, (c + radius) / BUCKET);
+        List<int[]> found = new ArrayList<>();
+        for (int br = br0; br <= br1; br++) {
+            for (int bc = bc0; bc <= bc1; bc++) {
+                collect(t, br, bc, r, c, radius, found);
+            }
+        }
+        for (int[] f : found) result.add(new Pos(f[1], f[2]));
+        return result;
+    }
+
+    // Los k más cercanos (Manhattan), recorriendo anillos de baldes alrededor de (r,c).
+    // Un balde en el anillo R está a distancia >= (R-1)*BUCKET+1, así que se corta
+    // cuando ya hay k candidatos más cercanos que eso.
+    List<Pos> nearest(Booster type, int r, int c, int k) {
+        int t = typeIndex(type);
+        List<Pos> result = new ArrayList<>();
+        if (t < 0 || k <= 0) return result;
+        int br = Math.min(bRows - 1, Math.max(0, r / BUCKET));
+        int bc = Math.min(bCols - 1, Math.max(0, c / BUCKET));
+        int maxRing = Math.max(Math.max(br, bRows - 1 - br), Math.max(bc, bCols - 1 - bc));
+        List<int[]> found = new ArrayList<>();
+        for (int ring = 0; ring <= maxRing; ring++) {
+            if (found.size() >= k) {
+                found.sort((a, b) -> Integer.compare(a[0], b[0]));
+                if (found.get(k - 1)[0] <= (ring - 1) * BUCKET) break;
+            }
+            for (int i = br - ring; i <= br + ring; i++) {
+                if (i < 0 || i >= bRows) continue;
+                boolean edge = i == br - ring || i == br + ring;
+                int step = edge ? 1 : Math.max(1, 2 * ring);
+                for (int j = bc - ring; j <= bc + ring; j += step) {
+                    if (j < 0 || j >= bCols) continue;
+                    collect(t, i, j, r, c, Integer.MAX_VALUE, found);
+                }
+            }
+        }
+        found.sort((a, b) -> Integer.compare(a[0], b[0]));
+        for (int i = 0; i < Math.min(k, found.size()); i++) {
+            result.add(new Pos(found.get(i)[1], found.get(i)[2]));
+        }
+        return result;
+    }
+}
@@ -1,13 +1,10 @@
 package Objects;
 
-import java.util.concurrent.locks.ReentrantLock;
-
 public class Cell {
     private final int row, col;
-    private final ReentrantLock lock = new ReentrantLock();
     private volatile Booster content = Booster.NONE;
     private volatile int coinAmount = 0;
-    private volatile Player player = null;
+    private volatile int occupant = 0;
 
     public Cell(int row, int col) {
         this.row = row;
@@ -16,16 +13,16 @@ public class Cell {
 
     public int row() { return row; }
     public int col() { return col; }
-    public ReentrantLock lock() { return lock; }
 
     public Booster content() { return content; }
     public int coinAmount() { return coinAmount; }
 
-    public boolean hasPlayer() { return player != null; }
-    public Player player() { return player; }
+    // Id del jugador en el tablero (0 = vacía)
+    public boolean hasPlayer() { return occupant != 0; }
+    public int occupant() { return occupant; }
 
-    public void setPlayer(Player p) { this.player = p; }
-    public void clearPlayer() { this.player = null; }
+    public void setOccupant(int id) { this.occupant = id; }
+    public void clearPlayer() { this.occupant = 0; }
 
     public void setCoin(int amount) {
         this.content = Booster.COIN;
@@ -0,0 +1,37 @@
+package Objects;
+
+// Una Cell por casilla
+class CellArrayStore implements CellStore {
+    // Cell (~32) + referencia en el arreglo (4)
+    private static final long BYTES_PER_CELL = 36;
+
+    private final Cell[] cells;
+
+    CellArrayStore(int rows, int cols) {
+        this.cells = new Cell[rows * cols];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                cells[r * cols + c] = new Cell(r, c);
+            }
+        }
+    }
+
+    @Override public Booster content(int i) { return cells[i].content(); }
+    @Override public int coinAmount(int i) { return cells[i].coinAmount(); }
+    @Override public int occupant(int i) { return cells[i].occupant(); }
+
+    @Override
+    public void setBooster(int i, Booster b, int amount) {
+        switch (b) {
+            case COIN -> cells[i].setCoin(amount);
+            case HEAL -> cells[i].setHeal();
+            case POISON -> cells[i].setPoison();
+            default -> cells[i].clearContent();
+        }
+    }
+
+    @Override public void clearContent(int i) { cells[i].clearContent(); }
+    @Override public void setOccupant(int i, int id) { cells[i].setOccupant(id); }
+
+    @Override public long bytesPerCell() { return BYTES_PER_CELL; }
+}
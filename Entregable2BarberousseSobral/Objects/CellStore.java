@@ -0,0 +1,17 @@
+package Objects;
+
+// Almacenamiento de las celdas de un Board, indexadas como r*cols+c.
+// Los ocupantes se guardan como id de jugador en el tablero (0 = vacía).
+// No sincroniza: el Board toma los locks de StripedLocks antes de escribir.
+interface CellStore {
+    Booster content(int i);
+    int coinAmount(int i);
+    int occupant(int i);
+
+    void setBooster(int i, Booster b, int amount);
+    void clearContent(int i);
+    void setOccupant(int i, int id);
+
+    // Estimación de memoria por celda, sin contar los locks
+    long bytesPerCell();
+}
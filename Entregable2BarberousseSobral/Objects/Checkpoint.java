@@ -0,0 +1,253 @@
+package Objects;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Foto binaria de una partida en curso: contenido del tablero, objetivos y el
+// estado de cada jugador (vidas, monedas, siesta y posición). Se toma desde
+// Board.snapshot(), así que no frena a los jugadores.
+//
+// Formato: MAGIC, versión, filas, columnas, objetivos de monedas, vidas y trampas
+// (int), versión del snapshot (long); después todo en varint: cantidad de
+// jugadores y por cada uno id, dígito, vidas, monedas, zmin, zmax, celda+1 y
+// nombre; cantidad de boosters y por cada uno la distancia a la celda del
+// anterior, el código del booster y las monedas si es COIN.
+public class Checkpoint {
+    public static final int MAGIC = 0x47434B50; // "GCKP"
+    public static final int VERSION = 1;
+
+    private final int rows, cols;
+    private final int targetCoins, targetHeals, targetTraps;
+    private final long version;
+    private final String[] names;
+    private final int[] playerInts;   // 5 por jugador: id, dígito, vidas, monedas, celda (-1 = fuera)
+    private final long[] naps;        // 2 por jugador: zmin, zmax
+    private final int[] boosterCells;
+    private final byte[] boosterCodes;
+    private final int[] boosterAmounts;
+
+    private Checkpoint(int rows, int cols, int targetCoins, int targetHeals, int targetTraps, long version,
+                       String[] names, int[] playerInts, long[] naps,
+                       int[] boosterCells, byte[] boosterCodes, int[] boosterAmounts) {
+        this.rows = rows;
+        this.cols = cols;
+        this.targetCoins = targetCoins;
+        this.targetHeals = targetHeals;
+        this.targetTraps = targetTraps;
+        this.version = version;
+        this.names = names;
+        this.playerInts = playerInts;
+        this.naps = naps;
+        this.boosterCells = boosterCells;
+        this.boosterCodes = boosterCodes;
+        this.boosterAmounts = boosterAmounts;
+    }
+
+    public int rows() { return rows; }
+    public int cols() { return cols; }
+    public long version() { return version; }
+    public int players() { return names.length; }
+    public int boosters() { return boosterCells.length; }
+
+    public static void write(Path file, Board board, List<Player> players) throws IOException {
+        BoardSnapshot snap = board.snapshot();
+        int rows = snap.rows(), cols = snap.cols();
+
+        // Celda de cada jugador según la foto (no según Player, que pudo moverse después)
+        int[] cellOf = new int[16];
+        Arrays.fill(cellOf, -1);
+        Out out = new Out(1 << 16);
+        Out grid = new Out(1 << 16);
+        int boosters = 0, last = 0;
+        for (int r = 0, i = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++, i++) {
+                int id = snap.occupantId(r, c);
+                if (id != 0) {
+                    if (id >= cellOf.length) {
+                        int old = cellOf.length;
+                        cellOf = Arrays.copyOf(cellOf, Math.max(id + 1, old * 2));
+                        Arrays.fill(cellOf, old, cellOf.length, -1);
+                    }
+                    cellOf[id] = i;
+                }
+                Booster b = snap.content(r, c);
+                if (b == Booster.NONE) continue;
+                grid.varInt(i - last);
+                grid.put(PackedCellStore.code(b));
+                if (b == Booster.COIN) grid.varInt(snap.coinAmount(r, c));
+                last = i;
+                boosters++;
+            }
+        }
+
+        out.putInt(MAGIC).putInt(VERSION).putInt(rows).putInt(cols)
+           .putInt(board.getTargetCoinCells()).putInt(board.getTargetHeals()).putInt(board.getTargetTraps())
+           .putLong(snap.version());
+        out.varInt(players.size());
+        for (Player p : players) {
+            int id = p.boardId();
+            int cell = id > 0 && id < cellOf.length ? cellOf[id] : -1;
+            out.varInt(id);
+            out.varInt(p.idDigit());
+            // Vidas y monedas de la misma foto que las celdas: el objeto Player pudo
+            // juntar otra vez la moneda que la foto todavía muestra en el tablero
+            boolean known = id > 0 && snap.playerById(id) == p;
+            out.varInt(Math.max(0, known ? snap.lives(id) : p.lifes()));
+            out.varInt(known ? snap.coins(id) : p.coins());
+            out.varLong(p.zmin());
+            out.varLong(p.zmax());
+            out.varInt(cell + 1);
+            byte[] name = p.name().getBytes(StandardCharsets.UTF_8);
+            out.varInt(name.length);
+            out.put(name, name.length);
+        }
+        out.varInt(boosters);
+        out.put(grid.buf, grid.len);
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer b = ByteBuffer.wrap(out.buf, 0, out.len);
+            while (b.hasRemaining()) ch.write(b);
+        }
+        // Nunca queda un checkpoint a medio escribir con el nombre final
+        Files.move(tmp, file, java.nio.file.StandardCopyOption.REPLACE_EXISTING,
+                java.nio.file.StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static Checkpoint read(Path file) throws IOException {
+        ByteBuffer b;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            b = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+        }
+        if (b.remaining() < 36 || b.getInt() != MAGIC) throw new IOException("No es un checkpoint: " + file);
+        if (b.getInt() != VERSION) throw new IOException("Versión de checkpoint no soportada: " + file);
+        int rows = b.getInt(), cols = b.getInt();
+        int targetCoins = b.getInt(), targetHeals = b.getInt(), targetTraps = b.getInt();
+        long version = b.getLong();
+
+        int n = varInt(b);
+        String[] names = new String[n];
+        int[] ints = new int[n * 5];
+        long[] naps = new long[n * 2];
+        for (int k = 0; k < n; k++) {
+            ints[k * 5] = varInt(b);
+            ints[k * 5 + 1] = varInt(b);
+            ints[k * 5 + 2] = varInt(b);
+            ints[k * 5 + 3] = varInt(b);
+            naps[k * 2] = varLong(b);
+            naps[k * 2 + 1] = varLong(b);
+            ints[k * 5 + 4] = varInt(b) - 1;
+            byte[] name = new byte[varInt(b)];
+            b.get(name);
+            names[k] = new String(name, StandardCharsets.UTF_8);
+        }
+
+        int count = varInt(b);
+        int[] cells = new int[count];
+        byte[] codes = new byte[count];
+        int[] amounts = new int[count];
+        for (int k = 0, cell = 0; k < count; k++) {
+            cell += varInt(b);
+            cells[k] = cell;
+            codes[k] = b.get();
+            if (PackedCellStore.fromCode(codes[k]) == Booster.COIN) amounts[k] = varInt(b);
+        }
+        return new Checkpoint(rows, cols, targetCoins, targetHeals, targetTraps, version,
+                names, ints, naps, cells, codes, amounts);
+    }
+
+    // Carga la foto en un tablero recién creado del mismo tamaño y devuelve los
+    // jugadores, ya colocados (los que estaban fuera del tablero quedan fuera).
+    public List<Player> restore(Board board) {
+        if (board.rows() != rows || board.cols() != cols) {
+            throw new IllegalArgumentException("El checkpoint es de " + rows + "x" + cols);
+        }
+        board.setTargets(targetCoins, targetHeals, targetTraps);
+        for (int k = 0; k < boosterCells.length; k++) {
+            int cell = boosterCells[k];
+            board.placeBoosterAt(PackedCellStore.fromCode(boosterCodes[k]), cell / cols, cell % cols, boosterAmounts[k]);
+        }
+
+        // Se registran en el orden de sus ids originales
+        Integer[] order = new Integer[names.length];
+        for (int k = 0; k < order.length; k++) order[k] = k;
+        Arrays.sort(order, (x, y) -> Integer.compare(playerInts[x * 5], playerInts[y * 5]));
+        Player[] restored = new Player[names.length];
+        for (int k : order) {
+            Player p = new Player(names[k], playerInts[k * 5 + 1], board, playerInts[k * 5 + 2], naps[k * 2], naps[k * 2 + 1]);
+            p.addCoins(playerInts[k * 5 + 3]);
+            int cell = playerInts[k * 5 + 4];
+            if (cell >= 0) board.placePlayerAt(p, cell / cols, cell % cols);
+            restored[k] = p;
+        }
+        return new ArrayList<>(Arrays.asList(restored));
+    }
+
+    private static int varInt(ByteBuffer b) {
+        return (int) varLong(b);
+    }
+
+    private static long varLong(ByteBuffer b) {
+        long v = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte x = b.get();
+            v |= (long) (x & 0x7F) << shift;
+            if (x >= 0) return v;
+        }
+    }
+
+    // Buffer de bytes que crece, con escritura de varints
+    private static final class Out {
+        byte[] buf;
+        int len;
+
+        Out(int capacity) { buf = new byte[capacity]; }
+
+        private void ensure(int n) {
+            if (len + n > buf.length) buf = Arrays.copyOf(buf, Math.max(len + n, buf.length * 2));
+        }
+
+        Out put(int v) {
+            ensure(1);
+            buf[len++] = (byte) v;
+            return this;
+        }
+
+        Out put(byte[] src, int n) {
+            ensure(n);
+            System.arraycopy(src, 0, buf, len, n);
+            len += n;
+            return this;
+        }
+
+        Out putInt(int v) {
+            return put(v >>> 24).put(v >>> 16).put(v >>> 8).put(v);
+        }
+
+        Out putLong(long v) {
+            return putInt((int) (v >>> 32)).putInt((int) v);
+        }
+
+        void varInt(int v) {
+            varLong(v & 0xFFFFFFFFL);
+        }
+
+        void varLong(long v) {
+            ensure(10);
+            while ((v & ~0x7FL) != 0) {
+                buf[len++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buf[len++] = (byte) v;
+        }
+    }
+}
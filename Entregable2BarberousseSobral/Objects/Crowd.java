@@ -0,0 +1,260 @@
+package Objects;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Modo multitud: el estado de los jugadores vive en arreglos primitivos (uno
+// por campo, indexados por lugar) en vez de un Player con su hilo cada uno.
+// Un grupo fijo de hilos recorre esos arreglos por lotes contiguos en cada
+// ronda de reloj virtual, con el mismo PathPlanner y las mismas reglas de
+// movimiento del Board (moveById, por id en lugar de objeto).
+//
+// Cada tanto los lugares se reordenan por fila del tablero, así un lote toca
+// jugadores vecinos y las celdas que lee el planner ya están en caché.
+public class Crowd implements AutoCloseable {
+    // Jugadores por lote que toma un hilo de una vez
+    public static final int BATCH = 1024;
+    // Rondas entre reordenamientos por fila
+    private static final int RESORT_ROUNDS = 64;
+    private static final int MAX_STEPS = 6;
+    private static final int PATH = MAX_STEPS + 1;
+
+    public record Entry(int id, int coins, int lives) {}
+
+    private final Board board;
+    private final int count;
+    private final long zmin, zmax;
+
+    // Estado por lugar (no por id: el orden cambia al reordenar)
+    private int[] ids;
+    private int[] cell;      // r*cols+c, -1 fuera del tablero
+    private int[] lives;
+    private int[] coins;
+    private int[] wake;      // próximo instante en que actúa, ms virtuales
+    private int[] path;      // PATH celdas por lugar, incluida la inicial
+    private byte[] pathLen;
+    private byte[] pathIdx;
+
+    private final Thread[] workers;
+    private final Phaser rounds;
+    private final AtomicInteger nextBatch = new AtomicInteger();
+    private final LongAdder deaths = new LongAdder();
+    private final LongAdder steps = new LongAdder();
+    private final LongAdder plans = new LongAdder();
+    private volatile boolean stopping = false;
+    private volatile int now = 0;
+    private int alive;
+    private long roundCount = 0;
+
+    // Coloca count jugadores al azar; los que no entran quedan muertos desde el inicio
+    public Crowd(Board board, int count, int initialLives, long zmin, long zmax, int threads, long seed) {
+        this.board = board;
+        this.count = count;
+        this.zmin = zmin;
+        this.zmax = zmax;
+        ids = new int[count];
+        cell = new int[count];
+        lives = new int[count];
+        coins = new int[count];
+        wake = new int[count];
+        path = new int[count * PATH];
+        pathLen = new byte[count];
+        pathIdx = new byte[count];
+
+        Random rnd = new Random(seed);
+        board.useRandom(new Random(rnd.nextLong()));
+        int first = board.reserveIds(count);
+        for (int k = 0; k < count; k++) {
+            ids[k] = first + k;
+            cell[k] = board.placeIdAtRandom(ids[k], initialLives);
+            lives[k] = cell[k] >= 0 ? initialLives : 0;
+            if (cell[k] >= 0) alive++;
+            wake[k] = (int) rnd.nextLong(0, zmax + 1);
+        }
+        // Las colocaciones usan el Random fijo; durante la partida cada hilo tiene el suyo
+        board.useRandom(null);
+        resort();
+
+        int n = Math.max(1, threads);
+        this.rounds = new Phaser(n + 1);
+        this.workers = new Thread[n];
+        for (int w = 0; w < n; w++) {
+            long workerSeed = rnd.nextLong();
+            workers[w] = new Thread(() -> work(workerSeed), "Multitud-" + (w + 1));
+            workers[w].setDaemon(true);
+            workers[w].start();
+        }
+    }
+
+    public int count() { return count; }
+    public int alive() { return alive; }
+    public int threads() { return workers.length; }
+    public long now() { return now; }
+    public long rounds() { return roundCount; }
+    public long steps() { return steps.sum(); }
+    public long plans() { return plans.sum(); }
+
+    // Bytes de estado por jugador en los arreglos (sin contar el Board)
+    public static long bytesPerPlayer() {
+        return 4L * 5 + 4L * PATH + 2;
+    }
+
+    // Corre hasta durationMillis de tiempo virtual o hasta que quede uno vivo.
+    // Entre rondas repone boosters hasta `refill` por tipo.
+    public List<Entry> run(long durationMillis, int refill) {
+        long end = now + durationMillis;
+        while (now < end && alive > 1) {
+            if (roundCount > 0 && roundCount % RESORT_ROUNDS == 0) resort();
+            nextBatch.set(0);
+            rounds.arriveAndAwaitAdvance();   // arranca la ronda
+            rounds.arriveAndAwaitAdvance();   // todos terminaron
+            alive -= (int) deaths.sumThenReset();
+            roundCount++;
+            now += (int) Player.STEP_MILLIS;
+            for (int k = 0; k < refill && board.tryPlaceCoin(5); k++) {}
+            for (int k = 0; k < refill && board.tryPlaceHeal(); k++) {}
+            for (int k = 0; k < refill && board.tryPlaceTrap(); k++) {}
+        }
+        return top(10);
+    }
+
+    private void work(long seed) {
+        Random rnd = new Random(seed);
+        PathPlanner planner = new PathPlanner();
+        int[] out = new int[PATH];
+        while (true) {
+            rounds.arriveAndAwaitAdvance();
+            if (stopping) return;
+            int batches = (count + BATCH - 1) / BATCH;
+            int t = now;
+            int b;
+            while ((b = nextBatch.getAndIncrement()) < batches) {
+                int lo = b * BATCH, hi = Math.min(count, lo + BATCH);
+                for (int k = lo; k < hi; k++) {
+                    if (lives[k] > 0 && wake[k] <= t) act(k, t, planner, out, rnd);
+                }
+            }
+            rounds.arriveAndAwaitAdvance();
+        }
+    }
+
+    // Un turno de Player: si no tiene camino tira el dado y planea, y da el siguiente paso
+    private void act(int k, int now, PathPlanner planner, int[] out, Random rnd) {
+        int cols = board.cols();
+        if (pathIdx[k] >= pathLen[k]) {
+            int dice = 1 + rnd.nextInt(MAX_STEPS);
+            int len = planner.planCells(cell[k] / cols, cell[k] % cols, board, dice, out, rnd);
+            plans.increment();
+            if (len <= 1) {
+                wake[k] = now + nap(rnd);
+                return;
+            }
+            System.arraycopy(out, 0, path, k * PATH, len);
+            pathLen[k] = (byte) len;
+            pathIdx[k] = 1;
+        }
+
+        int to = path[k * PATH + pathIdx[k]];
+        int res = board.moveById(cell[k], to, ids[k]);
+        steps.increment();
+        if (res == Board.NOT_MOVED) {
+            // Bloqueado: se descarta el resto del camino y se vuelve a planear
+            pathIdx[k] = pathLen[k];
+        } else {
+            pathIdx[k]++;
+            cell[k] = to;
+            switch (res & 3) {
+                case 1 -> coins[k] += res >>> 2;
+                case 2 -> lives[k]++;
+                case 3 -> lives[k]--;
+                default -> {}
+            }
+            if (lives[k] <= 0) {
+                board.clearById(cell[k], ids[k]);
+                cell[k] = -1;
+                deaths.increment();
+                return;
+            }
+        }
+        wake[k] = now + (int) Player.STEP_MILLIS + (pathIdx[k] < pathLen[k] ? 0 : nap(rnd));
+    }
+
+    private int nap(Random rnd) {
+        return (int) rnd.nextLong(zmin, zmax + 1);
+    }
+
+    // Reordena todos los arreglos por fila (orden estable, conteo por fila);
+    // los muertos van al final.
+    private void resort() {
+        int rows = board.rows(), cols = board.cols();
+        int[] start = new int[rows + 2];
+        for (int k = 0; k < count; k++) start[(cell[k] < 0 ? rows : cell[k] / cols) + 1]++;
+        for (int r = 0; r <= rows; r++) start[r + 1] += start[r];
+        int[] order = new int[count];
+        for (int k = 0; k < count; k++) order[start[cell[k] < 0 ? rows : cell[k] / cols]++] = k;
+
+        ids = permute(ids, order);
+        cell = permute(cell, order);
+        lives = permute(lives, order);
+        coins = permute(coins, order);
+        wake = permute(wake, order);
+        byte[] len = new byte[count], idx = new byte[count];
+        int[] p = new int[path.length];
+        for (int k = 0; k < count; k++) {
+            int from = order[k];
+            len[k] = pathLen[from];
+            idx[k] = pathIdx[from];
+            System.arraycopy(path, from * PATH, p, k * PATH, PATH);
+        }
+        pathLen = len;
+        pathIdx = idx;
+        path = p;
+    }
+
+    private static int[] permute(int[] a, int[] order) {
+        int[] b = new int[a.length];
+        for (int k = 0; k < a.length; k++) b[k] = a[order[k]];
+        return b;
+    }
+
+    // Los k mejores con el mismo criterio que Simulation.RANKING (vivos, monedas, vidas, id)
+    public List<Entry> top(int k) {
+        List<Entry> best = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Entry e = new Entry(ids[i], coins[i], lives[i]);
+            if (best.size() == k && !better(e, best.get(k - 1))) continue;
+            int at = best.size();
+            while (at > 0 && better(e, best.get(at - 1))) at--;
+            best.add(at, e);
+            if (best.size() > k) best.remove(k);
+        }
+        return best;
+    }
+
+    private static boolean better(Entry a, Entry b) {
+        boolean aliveA = a.lives() > 0, aliveB = b.lives() > 0;
+        if (aliveA != aliveB) return aliveA;
+        if (a.coins() != b.coins()) return a.coins() > b.coins();
+        if (a.lives() != b.lives()) return a.lives() > b.lives();
+        return a.id() < b.id();
+    }
+
+    @Override
+    public void close() {
+        if (stopping) return;
+        stopping = true;
+        rounds.arriveAndDeregister();
+        for (Thread t : workers) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
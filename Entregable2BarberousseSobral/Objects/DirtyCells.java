@@ -0,0 +1,63 @@
+package Objects;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+
+// Celdas modificadas desde la última vez que su consumidor las leyó. Cada
+// consumidor (BoardRenderer, SpectatorServer) pide la suya a Board.watchChanges(),
+// así vaciarla no le quita cambios a los demás.
+//
+// Dos niveles: un bit por celda y un bit por palabra de celdas, para que drain()
+// recorra solo las palabras con algo marcado y no el tablero entero.
+final class DirtyCells {
+    private final int total;
+    private final AtomicLongArray cells;
+    private final AtomicLongArray words;
+
+    DirtyCells(int total) {
+        this.total = total;
+        int n = (total + 63) >>> 6;
+        this.cells = new AtomicLongArray(n);
+        this.words = new AtomicLongArray((n + 63) >>> 6);
+    }
+
+    // Se llama después de escribir la celda: primero el bit de la celda y después
+    // el de su palabra, así drain() nunca limpia uno sin ver el otro
+    void mark(int i) {
+        int w = i >>> 6;
+        long bit = 1L << (i & 63);
+        if ((cells.get(w) & bit) == 0) cells.getAndAccumulate(w, bit, (a, b) -> a | b);
+        int s = w >>> 6;
+        long wbit = 1L << (w & 63);
+        if ((words.get(s) & wbit) == 0) words.getAndAccumulate(s, wbit, (a, b) -> a | b);
+    }
+
+    // Entrega y limpia las celdas marcadas, en orden creciente
+    void drain(IntConsumer visit) {
+        for (int s = 0; s < words.length(); s++) {
+            long wbits = words.getAndSet(s, 0L);
+            while (wbits != 0) {
+                int w = (s << 6) + Long.numberOfTrailingZeros(wbits);
+                wbits &= wbits - 1;
+                long bits = cells.getAndSet(w, 0L);
+                while (bits != 0) {
+                    int i = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    if (i < total) visit.accept(i);
+                }
+            }
+        }
+    }
+
+    // Descarta lo marcado (quien llama va a releer todo el tablero)
+    void clear() {
+        for (int s = 0; s < words.length(); s++) {
+            long wbits = words.getAndSet(s, 0L);
+            while (wbits != 0) {
+                int w = (s << 6) + Long.numberOfTrailingZeros(wbits);
+                wbits &= wbits - 1;
+                cells.set(w, 0L);
+            }
+        }
+    }
+}
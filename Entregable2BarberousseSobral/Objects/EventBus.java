@@ -0,0 +1,212 @@
+package Objects;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Anillo acotado de eventos con varios productores (jugadores, tablero) y varios
+// consumidores, cada uno en su hilo y con su propia posición de lectura. Los
+// casilleros se crean una sola vez; publicar no asigna memoria ni hace I/O.
+public class EventBus {
+    // Qué hacer cuando el anillo está lleno
+    public enum Backpressure {
+        DROP,   // se descarta el evento
+        BLOCK,  // el productor espera lugar
+        SAMPLE  // con el anillo a más de la mitad pasa 1 de cada sampleEvery; lleno, se descarta
+    }
+
+    public interface Handler {
+        void onEvent(GameEvent e);
+
+        // Se llama al final de cada lote procesado
+        default void flush() {}
+    }
+
+    private static final long IDLE_PARK_NANOS = 200_000;
+    private static final int CLOSE_STALLS = 50;
+
+    private final GameEvent[] slots;
+    private final int mask;
+    // Secuencia publicada en cada casillero (-1 = todavía no)
+    private final AtomicLongArray published;
+    // Última secuencia reservada por algún productor
+    private final AtomicLong cursor = new AtomicLong(-1);
+    private final Backpressure backpressure;
+    private final int sampleEvery;
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicLong sampleTick = new AtomicLong();
+
+    private final List<Consumer> consumers = new ArrayList<>();
+    private volatile Consumer[] gating = new Consumer[0];
+    private volatile boolean closed = false;
+
+    public EventBus(int capacity, Backpressure backpressure) {
+        this(capacity, backpressure, 8);
+    }
+
+    public EventBus(int capacity, Backpressure backpressure, int sampleEvery) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new GameEvent[size];
+        for (int i = 0; i < size; i++) slots[i] = new GameEvent();
+        this.mask = size - 1;
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) published.set(i, -1);
+        this.backpressure = backpressure;
+        this.sampleEvery = Math.max(1, sampleEvery);
+    }
+
+    // Consumidor que copia cada evento a otro bus, con la contrapresión de ese bus.
+    // Sirve para que un consumidor lento (la consola) no frene a los productores
+    // de un bus que espera lugar (el del diario).
+    public static Handler relay(EventBus to) {
+        return e -> to.publish(e.type(), e.playerId(), e.row(), e.col(), e.booster(), e.value());
+    }
+
+    public int capacity() { return slots.length; }
+    public Backpressure backpressure() { return backpressure; }
+    public long dropped() { return dropped.sum(); }
+    public long published() { return cursor.get() + 1; }
+
+    // Registra un consumidor con su propio hilo; debe hacerse antes de publicar
+    public synchronized void subscribe(String name, Handler handler) {
+        Consumer consumer = new Consumer(handler, cursor.get());
+        consumers.add(consumer);
+        gating = consumers.toArray(new Consumer[0]);
+        Thread t = new Thread(consumer, "Eventos-" + name);
+        t.setDaemon(true);
+        consumer.thread = t;
+        t.start();
+    }
+
+    public void publish(GameEvent.Type type, int playerId, int row, int col, Booster booster, int value) {
+        if (closed) return;
+        long seq = claim();
+        if (seq < 0) {
+            dropped.increment();
+            return;
+        }
+        slots[(int) (seq & mask)].set(type, playerId, row, col, booster, value);
+        published.set((int) (seq & mask), seq);
+    }
+
+    // Para productores dentro de una sección crítica: reserve() fija el lugar del
+    // evento en el orden del bus y nunca espera (con BLOCK puede pasarse de la
+    // capacidad); publish(seq, ...) lo completa después, ya fuera de la sección,
+    // y es ahí donde espera lugar. Devuelve -1 si el evento se descarta.
+    public long reserve() {
+        if (closed) {
+            dropped.increment();
+            return -1;
+        }
+        if (backpressure != Backpressure.BLOCK) {
+            long seq = claim();
+            if (seq < 0) dropped.increment();
+            return seq;
+        }
+        return cursor.incrementAndGet();
+    }
+
+    public void publish(long seq, GameEvent.Type type, int playerId, int row, int col, Booster booster, int value) {
+        if (seq < 0) return;
+        // El casillero todavía tiene un evento sin leer de la vuelta anterior
+        while (seq - minConsumed() > slots.length) {
+            if (closed) {
+                dropped.increment();
+                return;
+            }
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+        slots[(int) (seq & mask)].set(type, playerId, row, col, booster, value);
+        published.set((int) (seq & mask), seq);
+    }
+
+    private long claim() {
+        while (true) {
+            long cur = cursor.get();
+            long next = cur + 1;
+            long used = next - minConsumed();
+            if (used > slots.length) {
+                if (backpressure != Backpressure.BLOCK || closed) return -1;
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            if (backpressure == Backpressure.SAMPLE && used > slots.length / 2
+                    && sampleTick.getAndIncrement() % sampleEvery != 0) {
+                return -1;
+            }
+            if (cursor.compareAndSet(cur, next)) return next;
+        }
+    }
+
+    private long minConsumed() {
+        long min = cursor.get();
+        for (Consumer c : gating) min = Math.min(min, c.sequence);
+        return min;
+    }
+
+    // Deja de aceptar eventos, espera a que los consumidores vacíen el anillo
+    public void close(long timeoutMillis) {
+        closed = true;
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        for (Consumer c : gating) {
+            try {
+                c.thread.join(Math.max(1, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // Espera, sin límite, a que termine el consumidor de handler. Llamar después de
+    // close(): el consumidor sale al vaciar el anillo, así que siempre termina.
+    public void join(Handler handler) throws InterruptedException {
+        for (Consumer c : gating) {
+            if (c.handler == handler) c.thread.join();
+        }
+    }
+
+    private final class Consumer implements Runnable {
+        private final Handler handler;
+        // Última secuencia procesada
+        volatile long sequence;
+        Thread thread;
+
+        Consumer(Handler handler, long start) {
+            this.handler = handler;
+            this.sequence = start;
+        }
+
+        @Override
+        public void run() {
+            long next = sequence + 1;
+            int stalls = 0;
+            while (true) {
+                long seq = next;
+                // Procesa en lote todo lo ya publicado en orden
+                while (published.get((int) (seq & mask)) == seq) {
+                    try {
+                        handler.onEvent(slots[(int) (seq & mask)]);
+                    } catch (RuntimeException e) {
+                        // Un consumidor roto no puede frenar a los productores
+                        dropped.increment();
+                    }
+                    seq++;
+                }
+                if (seq != next) {
+                    sequence = seq - 1;
+                    next = seq;
+                    stalls = 0;
+                    handler.flush();
+                    continue;
+                }
+                // Cerrado y vacío. Si un productor reservó y todavía no publicó, se le da un margen.
+                if (closed && (cursor.get() < next || ++stalls > CLOSE_STALLS)) return;
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package Objects;
+
+import java.io.PrintStream;
+
+// Consumidor que imprime los eventos de la partida, con los mismos mensajes
+// que antes escribían los jugadores. Junta un lote y lo escribe de una vez.
+public class EventConsoleLogger implements EventBus.Handler {
+    private final Board board;
+    private final PrintStream out;
+    private final StringBuilder sb = new StringBuilder();
+
+    public EventConsoleLogger(Board board, PrintStream out) {
+        this.board = board;
+        this.out = out;
+    }
+
+    @Override
+    public void onEvent(GameEvent e) {
+        Player p = board.playerById(e.playerId());
+        String name = p != null ? p.name() : "#" + e.playerId();
+        switch (e.type()) {
+            case PICKED -> {
+                if (e.booster() == Booster.HEAL) {
+                    sb.append(String.format("+++ %s recogió una vida (vidas=%d) %n", name, e.value()));
+                } else if (e.booster() == Booster.POISON) {
+                    sb.append(String.format("--- %s pisó una trampa (vidas=%d) %n", name, e.value()));
+                } else if (e.booster() == Booster.COIN) {
+                    sb.append(String.format("$$$ %s juntó monedas (total=%d) %n", name, e.value()));
+                }
+            }
+            case DIED -> sb.append(String.format("XXX %s murió%n", name));
+            default -> { }
+        }
+    }
+
+    @Override
+    public void flush() {
+        if (sb.length() == 0) return;
+        out.print(sb);
+        sb.setLength(0);
+    }
+}
@@ -0,0 +1,25 @@
+package Objects;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Consumidor que cuenta eventos por tipo y boosters recogidos por tipo
+public class EventStats implements EventBus.Handler {
+    private final AtomicLongArray byType = new AtomicLongArray(GameEvent.Type.values().length);
+    private final AtomicLongArray picked = new AtomicLongArray(Booster.values().length);
+
+    @Override
+    public void onEvent(GameEvent e) {
+        byType.incrementAndGet(e.type().ordinal());
+        if (e.type() == GameEvent.Type.PICKED) picked.incrementAndGet(e.booster().ordinal());
+    }
+
+    public long count(GameEvent.Type type) { return byType.get(type.ordinal()); }
+    public long picked(Booster b) { return picked.get(b.ordinal()); }
+
+    @Override
+    public String toString() {
+        return String.format("%d movimientos, %d monedas, %d vidas, %d trampas, %d muertes",
+                count(GameEvent.Type.MOVED), picked(Booster.COIN), picked(Booster.HEAL),
+                picked(Booster.POISON), count(GameEvent.Type.DIED));
+    }
+}
@@ -0,0 +1,68 @@
+package Objects;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Eventos de JDK Flight Recorder del juego. Vienen apagados: se prenden con
+// entregable.jfc (jcmd <pid> JFR.start settings=default settings=entregable.jfc).
+// Los caminos calientes miran isEnabled() antes de crear el evento, así apagados
+// no reservan memoria aunque el JIT no llegue a eliminar el objeto.
+public final class FlightEvents {
+    private FlightEvents() {}
+
+    static final EventType PLAYER_TURN = EventType.getEventType(PlayerTurn.class);
+    static final EventType MOVE = EventType.getEventType(Move.class);
+    static final EventType ROBOT_PLACEMENT = EventType.getEventType(RobotPlacement.class);
+
+    @Name("entregable.PlayerTurn")
+    @Label("Turno de jugador")
+    @Description("Tirada del dado y planificación del camino; la duración es el tiempo de planificación")
+    @Category({ "Entregable", "Jugadores" })
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class PlayerTurn extends Event {
+        @Label("Jugador") public String player;
+        @Label("Dado") public int dice;
+        @Label("Largo del camino") public int pathLength;
+    }
+
+    @Name("entregable.Move")
+    @Label("Movimiento")
+    @Description("Board.movePlayerSafe, incluida la espera por los locks de las celdas")
+    @Category({ "Entregable", "Tablero" })
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class Move extends Event {
+        @Label("Jugador") public int playerId;
+        @Label("Desde") public int from;
+        @Label("Hasta") public int to;
+        @Label("Booster") public String booster;
+        @Label("Bloqueado") public boolean blocked;
+    }
+
+    @Name("entregable.RobotPlacement")
+    @Label("Colocación de robot")
+    @Category({ "Entregable", "Robots" })
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class RobotPlacement extends Event {
+        @Label("Booster") public String booster;
+        @Label("Colocado") public boolean placed;
+    }
+
+    @Name("entregable.DisplayFrame")
+    @Label("Cuadro dibujado")
+    @Description("Un cuadro del hilo de pantalla, completo o incremental")
+    @Category({ "Entregable", "Pantalla" })
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class DisplayFrame extends Event {
+        @Label("Incremental") public boolean diff;
+    }
+}
@@ -0,0 +1,83 @@
+package Objects;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Conjunto de celdas libres con alta, baja y muestreo al azar en O(1).
+// Las celdas se reparten en segmentos (celda % segments); cada segmento es un
+// arreglo denso con su propio lock y pos[] guarda la posición de cada celda
+// dentro de su segmento (-1 si no está), para poder borrar con swap-remove.
+class FreeCellIndex {
+    private final int segments;
+    private final int[][] cells;
+    private final int[] sizes;
+    private final int[] pos;
+    private final ReentrantLock[] locks;
+    private final AtomicInteger size = new AtomicInteger(0);
+
+    FreeCellIndex(int total, int segments) {
+        this.segments = Math.max(1, Math.min(segments, total));
+        int capacity = (total + this.segments - 1) / this.segments;
+        this.cells = new int[this.segments][capacity];
+        this.sizes = new int[this.segments];
+        this.pos = new int[total];
+        this.locks = new ReentrantLock[this.segments];
+        for (int s = 0; s < this.segments; s++) locks[s] = new ReentrantLock();
+        Arrays.fill(pos, -1);
+        for (int i = 0; i < total; i++) add(i);
+    }
+
+    int size() { return size.get(); }
+
+    boolean add(int i) {
+        int s = i % segments;
+        locks[s].lock();
+        try {
+            if (pos[i] >= 0) return false;
+            cells[s][sizes[s]] = i;
+            pos[i] = sizes[s]++;
+            size.incrementAndGet();
+            return true;
+        } finally {
+            locks[s].unlock();
+        }
+    }
+
+    boolean remove(int i) {
+        int s = i % segments;
+        locks[s].lock();
+        try {
+            int p = pos[i];
+            if (p < 0) return false;
+            int last = cells[s][--sizes[s]];
+            cells[s][p] = last;
+            pos[last] = p;
+            pos[i] = -1;
+            size.decrementAndGet();
+            return true;
+        } finally {
+            locks[s].unlock();
+        }
+    }
+
+    // Celda libre al azar, o -1 si no hay ninguna
+    int sample(Random rnd) {
+        if (size.get() == 0) return -1;
+        int s0 = rnd.nextInt(segments);
+        for (int k = 0; k < segments; k++) {
+            int s = (s0 + k) % segments;
+            locks[s].lock();
+            try {
+                if (sizes[s] > 0) return cells[s][rnd.nextInt(sizes[s])];
+            } finally {
+                locks[s].unlock();
+            }
+        }
+        return -1;
+    }
+
+    // pos[] + lugar en el segmento
+    long bytesPerCell() { return 2L * Integer.BYTES; }
+}
@@ -0,0 +1,35 @@
+package Objects;
+
+// Casillero reutilizable del EventBus. Los consumidores no deben guardar la
+// referencia: el productor lo sobreescribe cuando el anillo da la vuelta.
+public final class GameEvent {
+    public enum Type { PLACED, MOVED, PICKED, DIED, BOOSTER, REMOVED }
+
+    Type type;
+    int playerId;
+    int row, col;
+    Booster booster = Booster.NONE;
+    int value;
+    long nanos;
+
+    public Type type() { return type; }
+    public int playerId() { return playerId; }
+    public int row() { return row; }
+    public int col() { return col; }
+    // PICKED y BOOSTER: qué booster; MOVED: el que había en el destino
+    public Booster booster() { return booster; }
+    // PLACED: vidas iniciales. MOVED: celda de origen (r*cols+c).
+    // PICKED: vidas tras una vida o trampa, monedas tras juntar monedas. BOOSTER: monedas.
+    public int value() { return value; }
+    public long nanos() { return nanos; }
+
+    void set(Type type, int playerId, int row, int col, Booster booster, int value) {
+        this.type = type;
+        this.playerId = playerId;
+        this.row = row;
+        this.col = col;
+        this.booster = booster;
+        this.value = value;
+        this.nanos = System.nanoTime();
+    }
+}
@@ -0,0 +1,99 @@
+package Objects;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Aloja muchas GameSession a la vez sobre un único planificador con una cantidad
+// fija de hilos. Limita las sesiones simultáneas y lleva la cuenta de recursos
+// de cada una para saber cuántas partidas entran en un servidor.
+public class GameHost implements AutoCloseable {
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final int maxSessions;
+    private final Map<Integer, GameSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger(1);
+    private final AtomicInteger finished = new AtomicInteger();
+    // Recursos usados por las sesiones ya terminadas
+    private final LongAdder doneTasks = new LongAdder();
+    private final LongAdder doneBusyNanos = new LongAdder();
+    private final LongAdder doneMoves = new LongAdder();
+    private final long createdNanos = System.nanoTime();
+    // Almacenamiento y locks de los tableros de cada sesión (--storage, --stripes, --lockfree)
+    private volatile BoardConfig boardConfig = BoardConfig.defaults();
+
+    public GameHost(int threads, int maxSessions) {
+        AtomicInteger n = new AtomicInteger();
+        this.scheduler = new ScheduledThreadPoolExecutor(Math.max(1, threads), r -> {
+            Thread t = new Thread(r, "Sesiones-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        // Las tareas canceladas (plazos de partidas que terminaron antes) no se acumulan
+        scheduler.setRemoveOnCancelPolicy(true);
+        this.maxSessions = maxSessions;
+    }
+
+    public void useBoardConfig(BoardConfig config) { this.boardConfig = config; }
+
+    public int threads() { return scheduler.getCorePoolSize(); }
+    public int active() { return sessions.size(); }
+    public int finished() { return finished.get(); }
+    public int maxSessions() { return maxSessions; }
+
+    // Arranca una partida nueva. Devuelve null si el host ya está lleno.
+    public GameSession start(Tournament.GameParams params, List<String> names) {
+        if (sessions.size() >= maxSessions) return null;
+        GameSession s = new GameSession(nextId.getAndIncrement(), params, boardConfig, names, scheduler);
+        sessions.put(s.id(), s);
+        s.result().whenComplete((ranking, error) -> {
+            sessions.remove(s.id());
+            doneTasks.add(s.tasks());
+            doneBusyNanos.add(s.busyNanos());
+            doneMoves.add(s.moves());
+            finished.incrementAndGet();
+        });
+        s.start();
+        return s;
+    }
+
+    public List<GameSession> sessions() {
+        return new ArrayList<>(sessions.values());
+    }
+
+    // Una línea por sesión activa: tareas, tiempo ocupado, movimientos y memoria
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        long busy = 0, memory = 0;
+        for (GameSession s : sessions()) {
+            busy += s.busyNanos();
+            memory += s.memoryBytes();
+            sb.append(String.format("sesión %d %dx%d | %s | %d ms | %d tareas | %.1f ms ocupado | %d movimientos | ~%d KB%n",
+                    s.id(), s.params().n(), s.params().n(), s.state(), s.elapsedMillis(), s.tasks(),
+                    s.busyNanos() / 1e6, s.moves(), s.memoryBytes() / 1024));
+        }
+        sb.append(String.format("%d activas (%.1f ms ocupados, ~%d KB de tableros), %d hilos%n",
+                active(), busy / 1e6, memory / 1024, threads()));
+        double wall = (System.nanoTime() - createdNanos) / 1e9;
+        sb.append(String.format("%d terminadas: %d tareas, %d movimientos, %.1f ms ocupados (%.1f%% de los hilos)%n",
+                finished(), doneTasks.sum(), doneMoves.sum(), doneBusyNanos.sum() / 1e6,
+                100.0 * doneBusyNanos.sum() / 1e9 / Math.max(1e-9, wall * threads())));
+        return sb.toString();
+    }
+
+    @Override
+    public void close() {
+        for (GameSession s : sessions()) s.stop();
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,172 @@
+package Objects;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+// Contadores e histogramas del motor durante una partida. Se cuelga de un Board
+// con board.recordMetrics(m); sin métricas, el tablero no mide nada.
+public class GameMetrics implements GameMetricsMBean {
+    public static final int MAX_DICE = 6;
+
+    // Resultado de movePlayerSafe
+    final LongAdder moves = new LongAdder();
+    final LongAdder movesBlocked = new LongAdder();  // destino con otro jugador
+    final LongAdder movesStale = new LongAdder();    // el origen ya no era del jugador
+    final LongAdder movesRejected = new LongAdder(); // fuera del tablero o sin moverse
+
+    // Solo cuando el lock no se consiguió al primer intento
+    final LatencyHistogram lockWait = new LatencyHistogram();
+
+    // Duración de PathPlanner.planCells por valor del dado (índice 0: más de 6)
+    final LatencyHistogram[] plan = new LatencyHistogram[MAX_DICE + 1];
+
+    // randomFreeCell: llamadas y celdas muestreadas
+    private final LongAdder freeCellCalls = new LongAdder();
+    private final LongAdder freeCellProbes = new LongAdder();
+
+    // Intentos de los robots, por tipo de booster
+    final LongAdder[] robotPlaced = new LongAdder[Booster.values().length];
+    final LongAdder[] robotFailed = new LongAdder[Booster.values().length];
+
+    private ObjectName registered;
+
+    public GameMetrics() {
+        for (int i = 0; i < plan.length; i++) plan[i] = new LatencyHistogram();
+        for (int i = 0; i < robotPlaced.length; i++) {
+            robotPlaced[i] = new LongAdder();
+            robotFailed[i] = new LongAdder();
+        }
+    }
+
+    void planned(int steps, long nanos) {
+        plan[steps >= 1 && steps <= MAX_DICE ? steps : 0].record(nanos);
+    }
+
+    void freeCell(int probes) {
+        freeCellCalls.increment();
+        freeCellProbes.add(probes);
+    }
+
+    void robot(Booster type, boolean placed) {
+        (placed ? robotPlaced : robotFailed)[type.ordinal()].increment();
+    }
+
+    // Publica estas métricas en el servidor JMX de la plataforma, reemplazando
+    // las de la partida anterior
+    public GameMetrics registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName("Entregable:type=GameMetrics");
+            if (server.isRegistered(name)) server.unregisterMBean(name);
+            server.registerMBean(this, name);
+            registered = name;
+        } catch (Exception e) {
+            System.out.println("No se pudieron publicar las métricas por JMX: " + e.getMessage());
+        }
+        return this;
+    }
+
+    public void unregisterMBean() {
+        if (registered == null) return;
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(registered)) server.unregisterMBean(registered);
+        } catch (Exception ignored) {
+        }
+        registered = null;
+    }
+
+    @Override public long getMoves() { return moves.sum(); }
+    @Override public long getMovesBlocked() { return movesBlocked.sum(); }
+    @Override public long getMovesStale() { return movesStale.sum(); }
+    @Override public long getMovesRejected() { return movesRejected.sum(); }
+    @Override public long getLockWaits() { return lockWait.count(); }
+    @Override public double getLockWaitMeanMicros() { return lockWait.meanMicros(); }
+    @Override public double getLockWaitP99Micros() { return lockWait.percentileMicros(0.99); }
+
+    @Override
+    public long getPlans() {
+        long n = 0;
+        for (LatencyHistogram h : plan) n += h.count();
+        return n;
+    }
+
+    @Override
+    public double getPlanMeanMicros() {
+        long n = 0, t = 0;
+        for (LatencyHistogram h : plan) {
+            n += h.count();
+            t += h.totalNanos();
+        }
+        return n == 0 ? 0 : t / 1000.0 / n;
+    }
+
+    @Override
+    public double getPlanP99Micros() {
+        double max = 0;
+        for (LatencyHistogram h : plan) max = Math.max(max, h.percentileMicros(0.99));
+        return max;
+    }
+
+    @Override public long getFreeCellCalls() { return freeCellCalls.sum(); }
+
+    @Override
+    public double getFreeCellMeanProbes() {
+        long n = freeCellCalls.sum();
+        return n == 0 ? 0 : (double) freeCellProbes.sum() / n;
+    }
+
+    @Override
+    public long getRobotPlaced() {
+        long n = 0;
+        for (LongAdder a : robotPlaced) n += a.sum();
+        return n;
+    }
+
+    @Override
+    public long getRobotFailed() {
+        long n = 0;
+        for (LongAdder a : robotFailed) n += a.sum();
+        return n;
+    }
+
+    @Override
+    public String dump() {
+        StringBuilder sb = new StringBuilder("==== MÉTRICAS ====\n");
+        sb.append(String.format("Movimientos: %d ok, %d bloqueados, %d origen viejo, %d rechazados%n",
+                getMoves(), getMovesBlocked(), getMovesStale(), getMovesRejected()));
+        sb.append(String.format("Esperas de lock: %d (media %.1f us, p99 <= %.1f us)%n",
+                getLockWaits(), getLockWaitMeanMicros(), getLockWaitP99Micros()));
+        for (int d = 1; d <= MAX_DICE; d++) {
+            LatencyHistogram h = plan[d];
+            if (h.count() == 0) continue;
+            sb.append(String.format("Planner dado=%d: %d planes (media %.1f us, p99 <= %.1f us)%n",
+                    d, h.count(), h.meanMicros(), h.percentileMicros(0.99)));
+        }
+        sb.append(String.format("Celdas libres: %d pedidos, %.2f muestras por pedido%n",
+                getFreeCellCalls(), getFreeCellMeanProbes()));
+        for (Booster b : Booster.values()) {
+            long ok = robotPlaced[b.ordinal()].sum(), ko = robotFailed[b.ordinal()].sum();
+            if (ok + ko > 0) sb.append(String.format("Robot %s: %d colocados, %d fallidos%n", b, ok, ko));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public void reset() {
+        moves.reset();
+        movesBlocked.reset();
+        movesStale.reset();
+        movesRejected.reset();
+        lockWait.reset();
+        for (LatencyHistogram h : plan) h.reset();
+        freeCellCalls.reset();
+        freeCellProbes.reset();
+        for (int i = 0; i < robotPlaced.length; i++) {
+            robotPlaced[i].reset();
+            robotFailed[i].reset();
+        }
+    }
+}
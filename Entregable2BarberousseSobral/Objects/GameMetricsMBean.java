@@ -0,0 +1,22 @@
+package Objects;
+
+// Vista JMX de GameMetrics (jconsole, VisualVM: dominio Entregable)
+public interface GameMetricsMBean {
+    long getMoves();
+    long getMovesBlocked();
+    long getMovesStale();
+    long getMovesRejected();
+    long getLockWaits();
+    double getLockWaitMeanMicros();
+    double getLockWaitP99Micros();
+    long getPlans();
+    double getPlanMeanMicros();
+    double getPlanP99Micros();
+    long getFreeCellCalls();
+    double getFreeCellMeanProbes();
+    long getRobotPlaced();
+    long getRobotFailed();
+
+    String dump();
+    void reset();
+}
@@ -0,0 +1,147 @@
+package Objects;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Una partida en tiempo real sobre el planificador compartido de un GameHost.
+// Jugadores y robots no tienen hilo propio: cada turno, paso o intento es una
+// tarea programada con su espera, como en Simulation pero con reloj real. Las
+// tareas de una misma sesión se ejecutan de a una (monitor de la sesión), así
+// que la partida no necesita más sincronización que la del Board.
+//
+// El fin de la partida no se sondea: la muerte de un jugador descuenta los vivos
+// y el último en caer la cierra; el plazo T es una tarea más.
+public class GameSession {
+    public enum State { RUNNING, FINISHED, STOPPED }
+
+    private final int id;
+    private final Tournament.GameParams params;
+    private final ScheduledExecutorService scheduler;
+    private final Board board;
+    private final List<Player> players = new ArrayList<>();
+    private final List<Robot> robots = new ArrayList<>();
+    private final CompletableFuture<List<Player>> result = new CompletableFuture<>();
+
+    private volatile State state = State.RUNNING;
+    private int alive;
+    private ScheduledFuture<?> deadline;
+    private final long startNanos = System.nanoTime();
+    private volatile long endNanos;
+
+    // Uso de recursos de la sesión
+    private final LongAdder tasks = new LongAdder();
+    private final LongAdder busyNanos = new LongAdder();
+
+    GameSession(int id, Tournament.GameParams params, BoardConfig config, List<String> names,
+                ScheduledExecutorService scheduler) {
+        this.id = id;
+        this.params = params;
+        this.scheduler = scheduler;
+        this.board = new Board(params.n(), params.n(), config);
+        board.setTargetHeals(params.h());
+        int slot = 1;
+        for (String name : names) {
+            Player p = new Player(name, slot++, board, params.lives(), params.zmin(), params.zmax());
+            p.setVerbose(false);
+            if (board.placePlayerAtRandom(p)) players.add(p);
+        }
+        robots.add(new Robot(board, Booster.COIN, params.ymin(), params.ymax()));
+        robots.add(new Robot(board, Booster.HEAL, params.xmin(), params.xmax()));
+        robots.add(new Robot(board, Booster.POISON, params.wmin(), params.wmax()));
+    }
+
+    public int id() { return id; }
+    public Tournament.GameParams params() { return params; }
+    public Board board() { return board; }
+    public State state() { return state; }
+    // Ranking final cuando la partida termina (por vivos, plazo o stop())
+    public CompletableFuture<List<Player>> result() { return result; }
+
+    public long tasks() { return tasks.sum(); }
+    public long busyNanos() { return busyNanos.sum(); }
+    public long moves() { return board.successfulMoves(); }
+    public long memoryBytes() { return board.bytesPerCell() * board.total(); }
+
+    public long elapsedMillis() {
+        long end = endNanos != 0 ? endNanos : System.nanoTime();
+        return (end - startNanos) / 1_000_000;
+    }
+
+    synchronized void start() {
+        for (Player p : players) if (p.lifes() > 0) alive++;
+        if (alive <= 1) {
+            end(State.FINISHED);
+            return;
+        }
+        for (Player p : players) schedule(0, () -> playerTurn(p));
+        for (Robot r : robots) schedule(0, () -> robotTick(r));
+        deadline = scheduler.schedule(() -> run(() -> end(State.FINISHED)), params.t() * 1000L, TimeUnit.MILLISECONDS);
+    }
+
+    // Termina la partida antes de tiempo
+    public void stop() {
+        run(() -> end(State.STOPPED));
+    }
+
+    private void schedule(long delay, Runnable action) {
+        if (state != State.RUNNING) return;
+        scheduler.schedule(() -> run(action), Math.max(0, delay), TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void run(Runnable action) {
+        if (state != State.RUNNING) return;
+        long t0 = System.nanoTime();
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+            end(State.STOPPED);
+        } finally {
+            tasks.increment();
+            busyNanos.add(System.nanoTime() - t0);
+        }
+    }
+
+    private void playerTurn(Player p) {
+        if (!p.isActive()) return;
+        p.beginTurn();
+        if (p.hasPendingStep()) schedule(0, () -> playerStep(p));
+        else schedule(p.nextNap(), () -> playerTurn(p));
+    }
+
+    private void playerStep(Player p) {
+        p.step();
+        if (p.lifes() <= 0) {
+            p.finish();
+            if (--alive <= 1) end(State.FINISHED);
+            return;
+        }
+        if (p.hasPendingStep()) schedule(Player.STEP_MILLIS, () -> playerStep(p));
+        else schedule(Player.STEP_MILLIS + p.nextNap(), () -> playerTurn(p));
+    }
+
+    private void robotTick(Robot robot) {
+        long delay = robot.nextDelay(robot.attempt());
+        if (delay >= 0) schedule(delay, () -> robotTick(robot));
+    }
+
+    // Las tareas pendientes quedan en el planificador y al correr ven el estado y no hacen nada
+    private void end(State how) {
+        if (state != State.RUNNING) return;
+        state = how;
+        endNanos = System.nanoTime();
+        if (deadline != null) deadline.cancel(false);
+        for (Player p : players) {
+            p.stopGracefully();
+            p.finish();
+        }
+        List<Player> ranking = new ArrayList<>(players);
+        ranking.sort(Simulation.RANKING);
+        result.complete(ranking);
+    }
+}
@@ -0,0 +1,57 @@
+package Objects;
+
+import java.lang.reflect.Method;
+
+// Crea los hilos de jugadores y robots: de plataforma (por defecto) o virtuales.
+// Los hilos virtuales existen desde Java 21; se buscan por reflexión para que el
+// proyecto siga compilando con JDKs anteriores, donde se vuelve a hilos de plataforma.
+//
+// Los caminos de Board que bloquean (movePlayerSafe, tryPlace*, snapshotWithColors)
+// usan ReentrantLock, que no fija el hilo virtual a su carrier; el único
+// synchronized (registro del jugador en Board) no bloquea adentro.
+// Para verificarlo: -Djdk.tracePinnedThreads=full
+public final class GameThreads {
+    private static final Method OF_VIRTUAL;
+    private static final Method UNSTARTED;
+
+    static {
+        Method ofVirtual = null, unstarted = null;
+        try {
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            unstarted = Class.forName("java.lang.Thread$Builder").getMethod("unstarted", Runnable.class);
+        } catch (ReflectiveOperationException e) {
+            ofVirtual = null;
+            unstarted = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        UNSTARTED = unstarted;
+    }
+
+    private static volatile boolean virtual = false;
+
+    private GameThreads() {}
+
+    public static boolean virtualThreadsAvailable() { return OF_VIRTUAL != null; }
+
+    // Devuelve si quedaron activados (false si el JDK no los soporta)
+    public static boolean useVirtualThreads(boolean on) {
+        virtual = on && virtualThreadsAvailable();
+        return virtual;
+    }
+
+    public static boolean usingVirtualThreads() { return virtual; }
+
+    // Hilo sin arrancar para un Player o Robot
+    public static Thread newThread(Runnable task, String name) {
+        if (virtual) {
+            try {
+                Thread t = (Thread) UNSTARTED.invoke(OF_VIRTUAL.invoke(null), task);
+                t.setName(name);
+                return t;
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("No se pudo crear un hilo virtual", e);
+            }
+        }
+        return new Thread(task, name);
+    }
+}
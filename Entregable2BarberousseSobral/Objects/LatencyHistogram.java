@@ -0,0 +1,53 @@
+package Objects;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Histograma de latencias con cubetas en potencias de 2 de nanosegundos: registrar
+// es un incremento atómico, sin locks ni memoria nueva. Los percentiles salen con
+// la precisión de la cubeta (el doble como mucho).
+public final class LatencyHistogram {
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+
+    public void record(long nanos) {
+        long v = Math.max(0, nanos);
+        // Cubeta i: [2^i, 2^(i+1)) ns
+        buckets.incrementAndGet(63 - Long.numberOfLeadingZeros(v | 1));
+        count.increment();
+        total.add(v);
+    }
+
+    public long count() { return count.sum(); }
+    public long totalNanos() { return total.sum(); }
+
+    public double meanMicros() {
+        long n = count.sum();
+        return n == 0 ? 0 : total.sum() / 1000.0 / n;
+    }
+
+    // Cota superior de la cubeta donde cae el percentil q (0..1), en microsegundos
+    public double percentileMicros(double q) {
+        long n = 0;
+        long[] snap = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) n += snap[i] = buckets.get(i);
+        if (n == 0) return 0;
+        long target = (long) Math.ceil(q * n);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snap[i];
+            // La última cubeta no tiene cota representable en un long
+            if (seen >= target) return i == BUCKETS - 1 ? Long.MAX_VALUE / 1000.0 : (2L << i) / 1000.0;
+        }
+        return Long.MAX_VALUE / 1000.0;
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) buckets.set(i, 0);
+        count.reset();
+        total.reset();
+    }
+}
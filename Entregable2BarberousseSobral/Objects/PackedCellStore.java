@@ -0,0 +1,73 @@
+package Objects;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+// Un long por casilla:
+//   bits 0-1   contenido (0 NONE, 1 COIN, 2 HEAL, 3 POISON)
+//   bits 2-31  cantidad de monedas
+//   bits 32-63 id del ocupante (0 = vacía)
+class PackedCellStore implements CellStore {
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final Booster[] CODES = { Booster.NONE, Booster.COIN, Booster.HEAL, Booster.POISON };
+    private static final long CONTENT_MASK = 0x3L;
+    private static final long AMOUNT_MASK = 0x3FFF_FFFFL;
+
+    private final long[] words;
+
+    PackedCellStore(int rows, int cols) {
+        this.words = new long[rows * cols];
+    }
+
+    static int code(Booster b) {
+        return switch (b) {
+            case COIN -> 1;
+            case HEAL -> 2;
+            case POISON -> 3;
+            default -> 0;
+        };
+    }
+
+    static Booster fromCode(int code) { return CODES[code & (int) CONTENT_MASK]; }
+    static Booster booster(long word) { return CODES[(int) (word & CONTENT_MASK)]; }
+    static int amount(long word) { return (int) ((word >>> 2) & AMOUNT_MASK); }
+    static int occupant(long word) { return (int) (word >>> 32); }
+
+    static long withOccupant(long word, int occupant) {
+        return (word & 0xFFFF_FFFFL) | ((long) occupant << 32);
+    }
+
+    static long word(Booster b, int amount, int occupant) {
+        return ((long) occupant << 32) | ((amount & AMOUNT_MASK) << 2) | code(b);
+    }
+
+    long get(int i) { return (long) WORDS.getVolatile(words, i); }
+    void set(int i, long w) { WORDS.setVolatile(words, i, w); }
+    boolean cas(int i, long expect, long update) { return WORDS.compareAndSet(words, i, expect, update); }
+
+    @Override public Booster content(int i) { return booster(get(i)); }
+    @Override public int coinAmount(int i) { return amount(get(i)); }
+    @Override public int occupant(int i) { return occupant(get(i)); }
+
+    @Override
+    public void setBooster(int i, Booster b, int amount) {
+        long w = get(i);
+        int amt = b == Booster.COIN ? amount : 0;
+        set(i, word(b, amt, occupant(w)));
+    }
+
+    @Override
+    public void clearContent(int i) {
+        set(i, word(Booster.NONE, 0, occupant(get(i))));
+    }
+
+    @Override
+    public void setOccupant(int i, int id) {
+        set(i, withOccupant(get(i), id));
+    }
+
+    @Override
+    public long bytesPerCell() {
+        return Long.BYTES;
+    }
+}
@@ -1,90 +1,150 @@
 package Objects;
 
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class PathPlanner {
     private static final int[][] DIRS = { {-1,0},{0,1},{1,0},{0,-1} };
 
+    // Buffers reutilizables por hilo. El BFS nunca se aleja mas de `steps` de
+    // la celda inicial, asi que alcanza con una ventana (2*steps+1)^2 por
+    // profundidad, sin importar el tamaño del tablero.
+    private static final class Buffers {
+        int[] score = new int[0];
+        int[] parent = new int[0];
+        int[] cell = new int[0];
+        int[] stamp = new int[0];
+        int[] queue = new int[0];
+        int gen = 0;
+
+        void ensure(int states) {
+            if (score.length < states) {
+                score = new int[states];
+                parent = new int[states];
+                cell = new int[states];
+                stamp = new int[states];
+                queue = new int[states];
+                gen = 0;
+            }
+            if (++gen == 0) {
+                Arrays.fill(stamp, 0);
+                gen = 1;
+            }
+        }
+    }
+
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
     // greedy
     public List<Pos> plan(int r, int c, Board board, int steps) {
-        if (r < 0 || r >= board.rows() || c < 0 || c >= board.cols()) {
-            return Collections.emptyList();
+        return plan(r, c, board, steps, ThreadLocalRandom.current());
+    }
+
+    public List<Pos> plan(int r, int c, Board board, int steps, Random rnd) {
+        int[] cells = new int[steps + 1];
+        int len = planCells(r, c, board, steps, cells, rnd);
+        if (len == 0) return Collections.emptyList();
+        List<Pos> path = new ArrayList<>(len);
+        for (int i = 0; i < len; i++) {
+            path.add(new Pos(cells[i] / board.cols(), cells[i] % board.cols()));
+        }
+        return path;
+    }
+
+    // Igual que plan pero sin asignar memoria: escribe el camino en `out` como
+    // indices r*cols+c (incluida la celda inicial) y devuelve su largo, 0 si no hay camino.
+    public int planCells(int r, int c, Board board, int steps, int[] out) {
+        return planCells(r, c, board, steps, out, ThreadLocalRandom.current());
+    }
+
+    // rnd decide el desempate al azar; con un Random sembrado el plan es reproducible
+    public int planCells(int r, int c, Board board, int steps, int[] out, Random rnd) {
+        GameMetrics m = board.metrics();
+        if (m == null) return search(r, c, board, steps, out, rnd);
+        long t0 = System.nanoTime();
+        int len = search(r, c, board, steps, out, rnd);
+        m.planned(steps, System.nanoTime() - t0);
+        return len;
+    }
+
+    private int search(int r, int c, Board board, int steps, int[] out, Random rnd) {
+        int rows = board.rows(), cols = board.cols();
+        if (r < 0 || r >= rows || c < 0 || c >= cols) {
+            return 0;
         }
-        
-        record Node(int r,int c,int d,List<Pos> path,int score) {}
 
-        Queue<Node> q = new ArrayDeque<>();
-        q.add(new Node(r,c,0,new ArrayList<>(List.of(new Pos(r,c))), 0));
+        int side = 2 * steps + 1;
+        int depth = steps + 1;
+        Buffers b = BUFFERS.get();
+        b.ensure(side * side * depth);
+        int[] score = b.score, parent = b.parent, cell = b.cell, stamp = b.stamp, queue = b.queue;
+        int gen = b.gen;
 
-        boolean[][][] vis = new boolean[board.rows()][board.cols()][steps+1];
-        vis[r][c][0]=true;
+        // estado = ((fila local * side) + columna local) * depth + profundidad
+        int start = (steps * side + steps) * depth;
+        stamp[start] = gen;
+        score[start] = 0;
+        parent[start] = -1;
+        cell[start] = r * cols + c;
+        int head = 0, tail = 0;
+        queue[tail++] = start;
 
-        Node best = null;
+        int best = -1;
 
-        while (!q.isEmpty()) {
-            Node cur = q.poll();
-            if (cur.d == steps) {
-                if (best == null || cur.score > best.score) best = cur;
+        while (head < tail) {
+            int s = queue[head++];
+            int d = s % depth;
+            if (d == steps) {
+                if (best < 0 || score[s] > score[best]) best = s;
                 continue;
             }
-            for (int[] d: DIRS) {
-                int nr = cur.r + d[0], nc = cur.c + d[1];
-                if (nr<0 || nr>=board.rows() || nc<0 || nc>=board.cols()) continue;
-                if (vis[nr][nc][cur.d+1]) continue;
+            int cr = cell[s] / cols, cc = cell[s] % cols;
+            for (int[] dir : DIRS) {
+                int nr = cr + dir[0], nc = cc + dir[1];
+                if (nr<0 || nr>=rows || nc<0 || nc>=cols) continue;
+                int ns = ((nr - r + steps) * side + (nc - c + steps)) * depth + d + 1;
+                if (stamp[ns] == gen) continue;
                 if (board.isOccupied(nr,nc)) continue;
-                
+
                 var cont = board.cellContent(nr,nc);
                 if (cont == Booster.POISON) {
                     cont = Booster.NONE;
                 }
-                
+
                 int add = 0;
                 if (cont == Booster.COIN) add += Math.min(10, Math.max(1, board.cellCoinAmount(nr,nc)));
                 else if (cont == Booster.HEAL) add += 3;
-                
-                int playerCount = countPlayersInArea(board, nr, nc, 2);
-                
+
+                int playerCount = board.playerDensity(nr, nc);
+
                 if (playerCount > 1) {
                     add -= playerCount * 6;
                 } else if (playerCount == 0) {
                     add += 12;
                 }
-                
+
                 int explorationBonus = (Math.abs(nr - r) + Math.abs(nc - c)) / 3;
                 add += explorationBonus;
-                
-                add += (int)(Math.random() * 12);
-                
+
+                add += (int)(rnd.nextDouble() * 12);
+
                 int distance = Math.abs(nr - r) + Math.abs(nc - c);
                 if (distance > 4) {
                     add -= distance / 2;
                 }
 
-                List<Pos> npath = new ArrayList<>(cur.path);
-                npath.add(new Pos(nr,nc));
-                Node nxt = new Node(nr,nc,cur.d+1,npath, cur.score + add);
-                vis[nr][nc][cur.d+1]=true;
-                q.add(nxt);
+                stamp[ns] = gen;
+                score[ns] = score[s] + add;
+                parent[ns] = s;
+                cell[ns] = nr * cols + nc;
+                queue[tail++] = ns;
             }
         }
 
-        if (best == null) return Collections.emptyList();
-        return best.path;
-    }
-    
-    private int countPlayersInArea(Board board, int centerRow, int centerCol, int radius) {
-        int count = 0;
-        for (int dr = -radius; dr <= radius; dr++) {
-            for (int dc = -radius; dc <= radius; dc++) {
-                int r = centerRow + dr;
-                int c = centerCol + dc;
-                if (r >= 0 && r < board.rows() && c >= 0 && c < board.cols()) {
-                    if (board.isOccupied(r, c)) {
-                        count++;
-                    }
-                }
-            }
+        if (best < 0) return 0;
+        for (int s = best, i = steps; s >= 0; s = parent[s], i--) {
+            out[i] = cell[s];
         }
-        return count;
+        return depth;
     }
 }
@@ -0,0 +1,142 @@
+package Objects;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Simulación por ticks de reloj virtual (Player.STEP_MILLIS) en dos fases:
+//   1. Todos los jugadores listos para un turno nuevo planean en paralelo en un
+//      ForkJoinPool. En esta fase nadie escribe el tablero, así que todos ven
+//      la misma foto; cada uno usa su propio Random, y el plan no depende de qué
+//      hilo lo calculó ni en qué orden.
+//   2. Los pasos se aplican en un solo hilo con movePlayerSafe, en orden fijo
+//      (rotando el primero en cada tick para no favorecer siempre al mismo).
+// Con la misma semilla el resultado es el mismo con cualquier cantidad de hilos.
+public class PhasedSimulation implements AutoCloseable {
+    // Jugadores por hoja del fork/join
+    private static final int LEAF = 16;
+
+    private final Board board;
+    private final Random seeds;
+    private final ForkJoinPool pool;
+    private final List<Player> players = new ArrayList<>();
+    private final List<Robot> robots = new ArrayList<>();
+    private long[] wake = new long[0];
+    private long[] robotAt = new long[0];
+    private int[] ready = new int[0];
+    private long now = 0;
+    private long ticks = 0, plans = 0, steps = 0, planNanos = 0;
+    private int alive = 0;
+
+    public PhasedSimulation(Board board, long seed, int parallelism) {
+        this.board = board;
+        this.seeds = new Random(seed);
+        this.pool = new ForkJoinPool(Math.max(1, parallelism));
+        board.useRandom(new Random(seeds.nextLong()));
+    }
+
+    public long now() { return now; }
+    public long ticks() { return ticks; }
+    public long plans() { return plans; }
+    public long steps() { return steps; }
+    // Tiempo real total de la fase de planeamiento
+    public long planNanos() { return planNanos; }
+    public int parallelism() { return pool.getParallelism(); }
+    public List<Player> players() { return players; }
+
+    // El jugador debe estar ya colocado en el tablero
+    public void addPlayer(Player p) {
+        p.reseed(seeds.nextLong());
+        p.setVerbose(false);
+        players.add(p);
+        if (p.lifes() > 0) alive++;
+        wake = java.util.Arrays.copyOf(wake, players.size());
+    }
+
+    public void addRobot(Robot robot) {
+        robot.reseed(seeds.nextLong());
+        robots.add(robot);
+        robotAt = java.util.Arrays.copyOf(robotAt, robots.size());
+    }
+
+    private final class Plans extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int from, to;
+
+        Plans(int from, int to) { this.from = from; this.to = to; }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF) {
+                for (int k = from; k < to; k++) {
+                    int i = ready[k];
+                    Player p = players.get(i);
+                    // Sin camino posible: siesta y vuelve a intentar
+                    if (p.beginTurn() == 0) wake[i] = now + p.nextNap();
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Plans(from, mid), new Plans(mid, to));
+        }
+    }
+
+    // Corre hasta durationMillis de tiempo virtual, o hasta que quede un solo
+    // jugador vivo. Devuelve el ranking final.
+    public List<Player> run(long durationMillis) {
+        long end = now + durationMillis;
+        int n = players.size();
+        if (ready.length < n) ready = new int[n];
+        while (now < end && alive > 1) {
+            // Robots primero, así los planes de este tick ya ven sus boosters
+            for (int r = 0; r < robots.size(); r++) {
+                if (robotAt[r] > now) continue;
+                long delay = robots.get(r).nextDelay(robots.get(r).attempt());
+                robotAt[r] = delay >= 0 ? now + delay : Long.MAX_VALUE;
+            }
+
+            int count = 0;
+            for (int i = 0; i < n; i++) {
+                Player p = players.get(i);
+                if (p.isActive() && wake[i] <= now && !p.hasPendingStep()) ready[count++] = i;
+            }
+            if (count > 0) {
+                long t0 = System.nanoTime();
+                pool.invoke(new Plans(0, count));
+                planNanos += System.nanoTime() - t0;
+                plans += count;
+            }
+
+            int first = (int) (ticks % Math.max(1, n));
+            for (int k = 0; k < n; k++) {
+                int i = (first + k) % n;
+                Player p = players.get(i);
+                if (wake[i] > now || !p.hasPendingStep()) continue;
+                p.step();
+                steps++;
+                if (p.lifes() <= 0) {
+                    alive--;
+                    p.finish();
+                    continue;
+                }
+                wake[i] = now + Player.STEP_MILLIS + (p.hasPendingStep() ? 0 : p.nextNap());
+            }
+            now += Player.STEP_MILLIS;
+            ticks++;
+        }
+        for (Player p : players) {
+            p.stopGracefully();
+            p.finish();
+        }
+        List<Player> ranking = new ArrayList<>(players);
+        ranking.sort(Simulation.RANKING);
+        return ranking;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+}
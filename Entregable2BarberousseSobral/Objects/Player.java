@@ -1,7 +1,6 @@
 package Objects;
 
 import java.util.Random;
-import java.util.concurrent.ThreadLocalRandom;
 
 public class Player implements Runnable {
     private final String name;
@@ -11,12 +10,19 @@ public class Player implements Runnable {
 
     private final Random rnd = new Random();
     private final PathPlanner planner = new PathPlanner();
+    private final int[] path = new int[7];
+    private int pathLen = 0, pathIdx = 0;
+    private volatile boolean verbose = true;
 
     private volatile int r=-1,c=-1;
     private volatile int lives;
     private volatile int coins;
 
     private final int idDigit;
+    // Id asignado por el Board al registrarlo (0 = sin registrar)
+    private volatile int boardId = 0;
+    // Celda (r*cols+c) que el Board le tiene asignada, -1 si no está en el tablero
+    private volatile int boardCell = -1;
 
     public Player(String name, int idDigit, Board board, int initialLives, long zmin, long zmax) {
         this.name = name;
@@ -33,30 +39,61 @@ public class Player implements Runnable {
     public int coins() { return coins; }
     public int row() { return r; }
     public int col() { return c; }
+    public long zmin() { return zmin; }
+    public long zmax() { return zmax; }
+    public int boardId() { return boardId; }
+    void setBoardId(int id) { this.boardId = id; }
+    int boardCell() { return boardCell; }
+    void setBoardCell(int cell) { this.boardCell = cell; }
+
+    // Fija la semilla del dado, la siesta y el planner (simulaciones reproducibles)
+    public void reseed(long seed) { rnd.setSeed(seed); }
+    // Con false no imprime los eventos por consola
+    public void setVerbose(boolean verbose) { this.verbose = verbose; }
     
+    private static final String[] COLORS = {
+        "\u001B[31m", // Rojo
+        "\u001B[32m", // Verde
+        "\u001B[33m", // Amarillo
+        "\u001B[34m", // Azul
+        "\u001B[35m", // Magenta
+        "\u001B[36m", // Cyan
+    };
+
+    // Se calculan una sola vez: el nombre y el id no cambian
+    private String initials;
+    private byte[] glyph;
+
     public String getInitials() {
+        String cached = initials;
+        if (cached != null) return cached;
         String[] words = name.trim().split("\\s+");
         if (words.length >= 2) {
-            return (words[0].charAt(0) + "" + words[1].charAt(0)).toUpperCase();
+            cached = (words[0].charAt(0) + "" + words[1].charAt(0)).toUpperCase();
         } else if (words[0].length() >= 2) {
-            return words[0].substring(0, 2).toUpperCase();
+            cached = words[0].substring(0, 2).toUpperCase();
         } else {
-            return (words[0] + " ").toUpperCase();
+            cached = (words[0] + " ").toUpperCase();
         }
+        initials = cached;
+        return cached;
     }
-    
+
     public String getColorCode() {
-        String[] colors = {
-            "\u001B[31m", // Rojo
-            "\u001B[32m", // Verde  
-            "\u001B[33m", // Amarillo
-            "\u001B[34m", // Azul
-            "\u001B[35m", // Magenta
-            "\u001B[36m", // Cyan
-        };
-        return colors[(idDigit - 1) % colors.length];
+        return COLORS[(idDigit - 1) % COLORS.length];
     }
-    
+
+    // Celda "|XX|" con color, lista para escribir en la terminal
+    public byte[] glyphBytes() {
+        byte[] cached = glyph;
+        if (cached == null) {
+            cached = ("|" + getColorCode() + getInitials() + getResetColor() + "|")
+                    .getBytes(java.nio.charset.StandardCharsets.UTF_8);
+            glyph = cached;
+        }
+        return cached;
+    }
+
     public static String getResetColor() {
         return "\u001B[0m";
     }
@@ -66,45 +103,110 @@ public class Player implements Runnable {
     public void addLife() { this.lives++; }
     public void loseLife() { this.lives--; }
 
+    // Pausa entre pasos de un mismo turno
+    public static final long STEP_MILLIS = 40;
+
+    // Tira el dado y planea el turno. Devuelve la cantidad de pasos a dar.
+    public int beginTurn() {
+        if (!FlightEvents.PLAYER_TURN.isEnabled()) {
+            plan(1 + rnd.nextInt(6));
+            return Math.max(0, pathLen - 1);
+        }
+        FlightEvents.PlayerTurn event = new FlightEvents.PlayerTurn();
+        event.begin();
+        int dice = 1 + rnd.nextInt(6);
+        plan(dice);
+        event.end();
+        if (event.shouldCommit()) {
+            event.player = name;
+            event.dice = dice;
+            event.pathLength = Math.max(0, pathLen - 1);
+            event.commit();
+        }
+        return Math.max(0, pathLen - 1);
+    }
+
+    private void plan(int dice) {
+        pathLen = planner.planCells(r, c, board, dice, path, rnd);
+        pathIdx = 1;
+    }
+
+    public boolean hasPendingStep() {
+        return running && lives > 0 && pathIdx < pathLen;
+    }
+
+    // Da el siguiente paso del camino planeado
+    public void step() {
+        int nr = path[pathIdx] / board.cols(), nc = path[pathIdx] % board.cols();
+        pathIdx++;
+        // El tablero ya sumó monedas y vidas (o restó la trampa) al moverlo
+        Booster b = board.movePlayerSafe(r, c, nr, nc, this);
+        r = nr; c = nc;
+
+        if (b == Booster.HEAL || b == Booster.POISON) {
+            report(GameEvent.Type.PICKED, b, lives);
+        } else if (b == Booster.COIN) {
+            report(GameEvent.Type.PICKED, b, coins);
+        }
+    }
+
+    // Publica en el EventBus del tablero; los consumidores se encargan de imprimir.
+    // Sin bus y en modo verbose, imprime directo como antes.
+    private void report(GameEvent.Type type, Booster b, int value) {
+        EventBus bus = board.events();
+        if (bus != null) {
+            bus.publish(type, boardId, r, c, b, value);
+        } else if (!verbose) {
+            return;
+        } else if (type == GameEvent.Type.DIED) {
+            System.out.printf("XXX %s murió%n", name);
+        } else if (b == Booster.HEAL) {
+            System.out.printf("+++ %s recogió una vida (vidas=%d) %n", name, value);
+        } else if (b == Booster.POISON) {
+            System.out.printf("--- %s pisó una trampa (vidas=%d) %n", name, value);
+        } else if (b == Booster.COIN) {
+            System.out.printf("$$$ %s juntó monedas (total=%d) %n", name, value);
+        }
+    }
+
+    // Siesta entre turnos, en ms
+    public long nextNap() {
+        return rnd.nextLong(zmin, zmax + 1);
+    }
+
+    public boolean isActive() {
+        return running && lives > 0;
+    }
+
+    // Sale del tablero al terminar (por muerte o fin de partida)
+    public void finish() {
+        running = false;
+        clearFromBoard();
+        if (lives <= 0) report(GameEvent.Type.DIED, Booster.NONE, 0);
+    }
+
     @Override
     public void run() {
         try {
             while (running && lives > 0) {
-                int dice = 1 + rnd.nextInt(6);
-
-                var path = planner.plan(r, c, board, dice);
-                for (int i = 1; running && lives > 0 && i < path.size(); i++) {
-                    var step = path.get(i);
-                    Booster b = board.movePlayerSafe(r, c, step.r(), step.c(), this);
-                    r = step.r(); c = step.c();
-
-                    if (b == Booster.HEAL) {
-                        addLife();
-                        System.out.printf("+++ %s recogió una vida (vidas=%d) %n", name, lives);
-                    } else if (b == Booster.POISON) {
-                        loseLife();
-                        System.out.printf("--- %s pisó una trampa (vidas=%d) %n", name, lives);
-                        if (lives <= 0) break;
-                    } else if (b == Booster.COIN) {
-                        System.out.printf("$$$ %s juntó monedas (total=%d) %n", name, coins);
-                    }
-
-                    Thread.sleep(40);
+                beginTurn();
+                while (hasPendingStep()) {
+                    step();
+                    if (lives <= 0) break;
+                    Thread.sleep(STEP_MILLIS);
                 }
 
                 if (lives <= 0) break;
 
-                long nap = ThreadLocalRandom.current().nextLong(zmin, zmax + 1);
-                Thread.sleep(nap);
+                Thread.sleep(nextNap());
             }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         } finally {
-            running = false;
-            clearFromBoard();
-            if (lives <= 0) {
-                System.out.printf("XXX %s murió%n", name);
-            }
+            // Muerto sale ya del tablero. Detenido al terminar la partida queda en
+            // su celda: quien lo detuvo guarda el checkpoint y después llama a finish()
+            if (lives <= 0) finish();
+            else running = false;
         }
     }
 
@@ -0,0 +1,156 @@
+package Objects;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Reproduce un diario de partida (GameJournal) contra un Board nuevo, a toda
+// velocidad y sin Thread.sleep. Al final compara monedas y vidas de cada jugador
+// con el resultado grabado. Como la traza queda en memoria, también sirve de
+// carga de trabajo repetible para comparar configuraciones de Board y planners.
+public class Replay {
+    private static final int OP_PLACE = 0, OP_BOOSTER = 1, OP_MOVE = 2, OP_REMOVE = 3;
+    // Pasos que planea el planner opcional antes de cada movimiento (dado máximo)
+    private static final int PLAN_STEPS = 6;
+
+    private final int rows, cols;
+    // 4 enteros por operación: tipo<<2 | booster, y tres campos según el tipo
+    private int[] ops = new int[4 * 1024];
+    private int count = 0;
+    private String[] names = new String[8];
+    private int[] lives = new int[8];
+    private int[][] results = new int[8][];
+
+    public record Result(int operations, int diverged, int mismatches, long nanos, List<Player> players) {
+        // La reproducción terminó igual que la partida grabada
+        public boolean matches() { return diverged == 0 && mismatches == 0; }
+        public double opsPerSecond() { return operations / Math.max(1e-9, nanos / 1e9); }
+    }
+
+    private Replay(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    public int rows() { return rows; }
+    public int cols() { return cols; }
+    public int operations() { return count; }
+
+    public static Replay load(Path dir) throws IOException {
+        int[] dims = GameJournal.dimensions(dir);
+        Replay replay = new Replay(dims[0], dims[1]);
+        GameJournal.read(dir, replay.new Loader());
+        return replay;
+    }
+
+    private void add(int op, Booster b, int x, int y, int z) {
+        if (count * 4 == ops.length) ops = Arrays.copyOf(ops, ops.length * 2);
+        int i = count++ * 4;
+        ops[i] = op << 2 | PackedCellStore.code(b);
+        ops[i + 1] = x;
+        ops[i + 2] = y;
+        ops[i + 3] = z;
+    }
+
+    private void ensureId(int id) {
+        if (id < names.length) return;
+        int n = Math.max(id + 1, names.length * 2);
+        names = Arrays.copyOf(names, n);
+        lives = Arrays.copyOf(lives, n);
+        results = Arrays.copyOf(results, n);
+    }
+
+    private final class Loader implements GameJournal.Visitor {
+        @Override
+        public void placed(long micros, int playerId, String name, int row, int col, int initialLives) {
+            ensureId(playerId);
+            names[playerId] = name;
+            lives[playerId] = initialLives;
+            add(OP_PLACE, Booster.NONE, playerId, row * cols + col, 0);
+        }
+
+        @Override
+        public void moved(long micros, int playerId, int fromRow, int fromCol, int row, int col, Booster found) {
+            add(OP_MOVE, found, playerId, fromRow * cols + fromCol, row * cols + col);
+        }
+
+        @Override
+        public void booster(long micros, Booster b, int row, int col, int amount) {
+            add(OP_BOOSTER, b, row * cols + col, amount, 0);
+        }
+
+        @Override
+        public void died(long micros, int playerId) { }
+
+        @Override
+        public void removed(long micros, int playerId) {
+            add(OP_REMOVE, Booster.NONE, playerId, 0, 0);
+        }
+
+        @Override
+        public void result(int playerId, int coins, int finalLives) {
+            ensureId(playerId);
+            results[playerId] = new int[] { coins, finalLives };
+        }
+    }
+
+    public Result run(BoardConfig config) {
+        return run(new Board(rows, cols, config), null);
+    }
+
+    // Con planner != null, antes de cada movimiento planea desde la posición del
+    // jugador sobre el tablero real de ese momento (el plan se descarta).
+    public Result run(Board board, PathPlanner planner) {
+        if (board.rows() != rows || board.cols() != cols) {
+            throw new IllegalArgumentException("El tablero debe ser de " + rows + "x" + cols);
+        }
+        Player[] players = new Player[names.length];
+        int[] path = new int[PLAN_STEPS + 1];
+        int diverged = 0;
+
+        long t0 = System.nanoTime();
+        for (int k = 0; k < count * 4; k += 4) {
+            int op = ops[k] >>> 2;
+            Booster b = PackedCellStore.fromCode(ops[k]);
+            if (op == OP_PLACE) {
+                int id = ops[k + 1], cell = ops[k + 2];
+                Player p = new Player(names[id], id, board, lives[id], 0, 0);
+                p.setVerbose(false);
+                players[id] = p;
+                if (!board.placePlayerAt(p, cell / cols, cell % cols)) diverged++;
+            } else if (op == OP_BOOSTER) {
+                int cell = ops[k + 1];
+                if (!board.placeBoosterAt(b, cell / cols, cell % cols, ops[k + 2])) diverged++;
+            } else if (op == OP_REMOVE) {
+                Player p = players[ops[k + 1]];
+                if (p != null) board.clearAllPlayerPositions(p);
+            } else {
+                Player p = players[ops[k + 1]];
+                int from = ops[k + 2], to = ops[k + 3];
+                if (p == null) {
+                    diverged++;
+                    continue;
+                }
+                if (planner != null) planner.planCells(p.row(), p.col(), board, PLAN_STEPS, path);
+                Booster found = board.movePlayerSafe(from / cols, from % cols, to / cols, to % cols, p);
+                // movePlayerSafe ya aplica monedas, vidas y trampas al jugador
+                if (p.boardCell() != to || found != b) diverged++;
+            }
+        }
+        long nanos = System.nanoTime() - t0;
+
+        int mismatches = 0;
+        List<Player> list = new ArrayList<>();
+        for (int id = 0; id < players.length; id++) {
+            Player p = players[id];
+            if (p == null) continue;
+            list.add(p);
+            int[] expected = results[id];
+            if (expected != null && (expected[0] != p.coins() || expected[1] != p.lifes())) mismatches++;
+        }
+        list.sort(Simulation.RANKING);
+        return new Result(count, diverged, mismatches, nanos, list);
+    }
+}
@@ -0,0 +1,420 @@
+package Objects;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Resultados de todas las partidas en un único archivo de solo agregado, con un
+// índice en memoria por jugador (partidas, victorias, monedas, historial) que se
+// arma al abrir y se actualiza en cada alta. Las consultas no tocan el disco.
+//
+// Formato: MAGIC y versión (int); después registros que empiezan con un byte:
+//   NAME: id y nombre (varint + UTF-8), la primera vez que aparece un jugador
+//   GAME: fecha en ms (long), tipo de partida (byte), cantidad de jugadores y
+//         por cada uno, en orden de ranking, id, monedas y vidas (varint)
+public class ResultsStore implements AutoCloseable {
+    public static final int MAGIC = 0x47524553; // "GRES"
+    public static final int VERSION = 1;
+    private static final byte REC_NAME = 1, REC_GAME = 2;
+
+    // Tipo de partida, con el prefijo que usaban los archivos de texto
+    public enum Kind {
+        PARTIDA("partida_"), NUEVA("nueva_partida_"), CONTINUADA("partida_continuada_"), COMPLETA("partida_completa_");
+
+        final String prefix;
+        Kind(String prefix) { this.prefix = prefix; }
+    }
+
+    public enum Order { COINS, WINS, WIN_RATE, GAMES }
+
+    public record Entry(String name, int coins, int lives) {}
+
+    public record Standing(String name, int games, int wins, long coins, int bestCoins) {
+        public double winRate() { return games == 0 ? 0 : (double) wins / games; }
+    }
+
+    public record GameResult(long game, long timeMillis, Kind kind, int rank, int players, int coins, int lives) {}
+
+    private final Path file;
+    private final FileChannel channel;
+
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Integer> nameIds = new HashMap<>();
+
+    // Por partida
+    private long[] gameTime = new long[1024];
+    private byte[] gameKind = new byte[1024];
+    private int[] gameFirstRow = new int[1025];
+    private int games = 0;
+
+    // Por fila (un jugador en una partida), en orden de ranking
+    private int[] rowPlayer = new int[4096];
+    private int[] rowCoins = new int[4096];
+    private int[] rowLives = new int[4096];
+    private int rows = 0;
+
+    // Por jugador
+    private int[] playerGames = new int[64];
+    private int[] playerWins = new int[64];
+    private long[] playerCoins = new long[64];
+    private int[] playerBest = new int[64];
+    private int[][] playerRows = new int[64][];
+
+    private Set<Long> importedKeys;
+
+    private ResultsStore(Path file, FileChannel channel) {
+        this.file = file;
+        this.channel = channel;
+    }
+
+    public static ResultsStore open(Path file) throws IOException {
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ResultsStore store = new ResultsStore(file, ch);
+        try {
+            store.load();
+        } catch (IOException e) {
+            ch.close();
+            throw e;
+        }
+        return store;
+    }
+
+    public Path file() { return file; }
+    public int games() { return games; }
+    public int players() { return names.size(); }
+
+    private void load() throws IOException {
+        long size = channel.size();
+        if (size == 0) {
+            ByteBuffer h = ByteBuffer.allocate(8).putInt(MAGIC).putInt(VERSION);
+            h.flip();
+            while (h.hasRemaining()) channel.write(h, h.position());
+            channel.position(8);
+            return;
+        }
+        ByteBuffer b = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        if (size < 8 || b.getInt() != MAGIC) throw new IOException("No es un archivo de resultados: " + file);
+        if (b.getInt() != VERSION) throw new IOException("Versión de resultados no soportada: " + file);
+        int good = b.position();
+        try {
+            while (b.hasRemaining()) {
+                byte tag = b.get();
+                if (tag == REC_NAME) {
+                    int id = varInt(b);
+                    byte[] name = new byte[varInt(b)];
+                    b.get(name);
+                    if (id != names.size()) throw new IOException("Índice de nombres corrupto en " + file);
+                    addName(new String(name, StandardCharsets.UTF_8));
+                } else if (tag == REC_GAME) {
+                    long time = b.getLong();
+                    byte kind = b.get();
+                    int n = varInt(b);
+                    int[] ids = new int[n], coins = new int[n], lives = new int[n];
+                    for (int k = 0; k < n; k++) {
+                        ids[k] = varInt(b);
+                        coins[k] = varInt(b);
+                        lives[k] = unzigzag(varInt(b));
+                    }
+                    index(time, kind, ids, coins, lives);
+                } else {
+                    // Un byte suelto en el medio no se recorta: se perderían las partidas siguientes
+                    throw new IOException("Registro desconocido (" + tag + ") en la posición " + (b.position() - 1) + " de " + file);
+                }
+                good = b.position();
+            }
+        } catch (BufferUnderflowException e) {
+            // Último registro a medio escribir (corte durante un alta): se descarta
+        }
+        if (good < size) channel.truncate(good);
+        channel.position(good);
+    }
+
+    private int addName(String name) {
+        int id = names.size();
+        names.add(name);
+        nameIds.put(name, id);
+        if (id >= playerGames.length) {
+            int n = playerGames.length * 2;
+            playerGames = Arrays.copyOf(playerGames, n);
+            playerWins = Arrays.copyOf(playerWins, n);
+            playerCoins = Arrays.copyOf(playerCoins, n);
+            playerBest = Arrays.copyOf(playerBest, n);
+            playerRows = Arrays.copyOf(playerRows, n);
+        }
+        playerRows[id] = new int[4];
+        return id;
+    }
+
+    private void index(long time, byte kind, int[] ids, int[] coins, int[] lives) {
+        if (games == gameTime.length) {
+            gameTime = Arrays.copyOf(gameTime, games * 2);
+            gameKind = Arrays.copyOf(gameKind, games * 2);
+            gameFirstRow = Arrays.copyOf(gameFirstRow, games * 2 + 1);
+        }
+        if (rows + ids.length > rowPlayer.length) {
+            int n = Math.max(rows + ids.length, rowPlayer.length * 2);
+            rowPlayer = Arrays.copyOf(rowPlayer, n);
+            rowCoins = Arrays.copyOf(rowCoins, n);
+            rowLives = Arrays.copyOf(rowLives, n);
+        }
+        gameTime[games] = time;
+        gameKind[games] = kind;
+        gameFirstRow[games] = rows;
+        for (int k = 0; k < ids.length; k++) {
+            int id = ids[k];
+            rowPlayer[rows] = id;
+            rowCoins[rows] = coins[k];
+            rowLives[rows] = lives[k];
+            playerGames[id]++;
+            if (k == 0) playerWins[id]++;
+            playerCoins[id] += coins[k];
+            playerBest[id] = Math.max(playerBest[id], coins[k]);
+            // El primer casillero guarda cuántas filas tiene el historial
+            int[] hist = playerRows[id];
+            int len = hist[0];
+            if (len + 2 > hist.length) hist = playerRows[id] = Arrays.copyOf(hist, hist.length * 2);
+            hist[len + 1] = rows;
+            hist[0] = len + 1;
+            rows++;
+        }
+        games++;
+        gameFirstRow[games] = rows;
+        if (importedKeys != null) importedKeys.add(key(time, kind));
+    }
+
+    // Agrega una partida; ranking en orden (el primero es el ganador). Devuelve su número.
+    public synchronized long append(Kind kind, long timeMillis, List<Entry> ranking) throws IOException {
+        ByteBuffer b = ByteBuffer.allocate(64 + ranking.size() * 24);
+        int[] ids = new int[ranking.size()], coins = new int[ranking.size()], lives = new int[ranking.size()];
+        // Nombres nuevos: se dan de alta en el índice recién cuando el registro está en disco
+        List<String> added = new ArrayList<>();
+        for (int k = 0; k < ranking.size(); k++) {
+            Entry e = ranking.get(k);
+            Integer id = nameIds.get(e.name());
+            if (id == null && added.contains(e.name())) id = names.size() + added.indexOf(e.name());
+            if (id == null) {
+                id = names.size() + added.size();
+                added.add(e.name());
+                byte[] name = e.name().getBytes(StandardCharsets.UTF_8);
+                if (b.remaining() < name.length + 64) b = grow(b, name.length + 64);
+                b.put(REC_NAME);
+                putVarInt(b, id);
+                putVarInt(b, name.length);
+                b.put(name);
+            }
+            ids[k] = id;
+            coins[k] = Math.max(0, e.coins());
+            lives[k] = e.lives();
+        }
+        if (b.remaining() < 16 + ranking.size() * 16) b = grow(b, 16 + ranking.size() * 16);
+        b.put(REC_GAME).putLong(timeMillis).put((byte) kind.ordinal());
+        putVarInt(b, ranking.size());
+        for (int k = 0; k < ids.length; k++) {
+            putVarInt(b, ids[k]);
+            putVarInt(b, coins[k]);
+            putVarInt(b, zigzag(lives[k]));
+        }
+        b.flip();
+        long start = channel.position();
+        try {
+            while (b.hasRemaining()) channel.write(b);
+        } catch (IOException e) {
+            // Sin restos de un registro a medias delante del próximo alta
+            try {
+                channel.truncate(start);
+                channel.position(start);
+            } catch (IOException ignored) {
+            }
+            throw e;
+        }
+        for (String name : added) addName(name);
+        index(timeMillis, (byte) kind.ordinal(), ids, coins, lives);
+        return games;
+    }
+
+    private static ByteBuffer grow(ByteBuffer b, int extra) {
+        ByteBuffer n = ByteBuffer.allocate(b.capacity() * 2 + extra);
+        b.flip();
+        return n.put(b);
+    }
+
+    public synchronized Standing standing(String name) {
+        Integer id = nameIds.get(name);
+        return id == null ? null : standingOf(id);
+    }
+
+    private Standing standingOf(int id) {
+        return new Standing(names.get(id), playerGames[id], playerWins[id], playerCoins[id], playerBest[id]);
+    }
+
+    // Los `limit` mejores jugadores de todos los tiempos según `order`
+    public synchronized List<Standing> leaderboard(Order order, int limit) {
+        int n = names.size();
+        Integer[] ids = new Integer[n];
+        for (int i = 0; i < n; i++) ids[i] = i;
+        Comparator<Integer> cmp = switch (order) {
+            case COINS -> Comparator.comparingLong(i -> -playerCoins[i]);
+            case WINS -> Comparator.comparingInt(i -> -playerWins[i]);
+            case GAMES -> Comparator.comparingInt(i -> -playerGames[i]);
+            case WIN_RATE -> Comparator.comparingDouble(i -> -(double) playerWins[i] / Math.max(1, playerGames[i]));
+        };
+        Arrays.sort(ids, cmp.thenComparing(i -> names.get(i), String.CASE_INSENSITIVE_ORDER));
+        List<Standing> out = new ArrayList<>(Math.min(n, limit));
+        for (int i = 0; i < n && out.size() < limit; i++) out.add(standingOf(ids[i]));
+        return out;
+    }
+
+    // Las últimas `limit` partidas del jugador, de la más reciente a la más vieja
+    public synchronized List<GameResult> history(String name, int limit) {
+        Integer id = nameIds.get(name);
+        if (id == null) return List.of();
+        int[] hist = playerRows[id];
+        List<GameResult> out = new ArrayList<>(Math.min(hist[0], limit));
+        for (int k = hist[0]; k >= 1 && out.size() < limit; k--) {
+            int row = hist[k];
+            int game = gameOfRow(row);
+            out.add(new GameResult(game + 1, gameTime[game], Kind.values()[gameKind[game]],
+                    row - gameFirstRow[game] + 1, gameFirstRow[game + 1] - gameFirstRow[game],
+                    rowCoins[row], rowLives[row]));
+        }
+        return out;
+    }
+
+    private int gameOfRow(int row) {
+        int lo = 0, hi = games - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (gameFirstRow[mid] <= row) lo = mid;
+            else hi = mid - 1;
+        }
+        return lo;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    // ---- Importación de los archivos de texto viejos ----
+
+    private static final Pattern LINE = Pattern.compile("^\\d+\\) (.*?)\\s+\\| monedas=(-?\\d+) \\| vidas=(-?\\d+)\\s*$");
+
+    private record Parsed(Kind kind, long time, List<Entry> ranking) {}
+
+    // Lee en paralelo los partida_*.txt (y variantes) de `dir` y agrega los que
+    // todavía no estén, en orden cronológico. Devuelve cuántas partidas agregó.
+    public int importText(Path dir, int parallelism) throws IOException {
+        List<Path> files;
+        try (Stream<Path> s = Files.list(dir)) {
+            files = s.filter(p -> kindOf(p.getFileName().toString()) != null).toList();
+        }
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+        List<Parsed> parsed;
+        try {
+            parsed = pool.submit(() -> files.parallelStream().map(ResultsStore::parse)
+                    .filter(p -> p != null && !p.ranking().isEmpty()).toList()).get();
+        } catch (Exception e) {
+            throw new IOException("No se pudieron leer los resultados de " + dir, e);
+        } finally {
+            pool.shutdown();
+        }
+        parsed = new ArrayList<>(parsed);
+        parsed.sort(Comparator.comparingLong(Parsed::time));
+
+        synchronized (this) {
+            if (importedKeys == null) {
+                importedKeys = new HashSet<>();
+                for (int g = 0; g < games; g++) importedKeys.add(key(gameTime[g], gameKind[g]));
+            }
+        }
+        int added = 0;
+        for (Parsed p : parsed) {
+            synchronized (this) {
+                if (importedKeys.contains(key(p.time(), (byte) p.kind().ordinal()))) continue;
+            }
+            append(p.kind(), p.time(), p.ranking());
+            added++;
+        }
+        return added;
+    }
+
+    private static long key(long time, byte kind) {
+        return time * 4 + kind;
+    }
+
+    // El prefijo más largo gana: "partida_continuada_" antes que "partida_"
+    private static Kind kindOf(String fileName) {
+        if (!fileName.endsWith(".txt")) return null;
+        Kind best = null;
+        for (Kind k : Kind.values()) {
+            if (fileName.startsWith(k.prefix) && (best == null || k.prefix.length() > best.prefix.length())) best = k;
+        }
+        return best;
+    }
+
+    private static Parsed parse(Path file) {
+        String fileName = file.getFileName().toString();
+        Kind kind = kindOf(fileName);
+        try {
+            long time;
+            try {
+                String stamp = fileName.substring(kind.prefix.length(), fileName.length() - 4);
+                int t = stamp.indexOf('T');
+                LocalDateTime when = LocalDateTime.parse(stamp.substring(0, t + 1) + stamp.substring(t + 1).replaceFirst("-", ":").replaceFirst("-", ":"));
+                time = when.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            } catch (RuntimeException e) {
+                time = Files.getLastModifiedTime(file).toMillis();
+            }
+            List<Entry> ranking = new ArrayList<>();
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                Matcher m = LINE.matcher(line);
+                if (m.matches()) {
+                    ranking.add(new Entry(m.group(1).trim(), Integer.parseInt(m.group(2)), Integer.parseInt(m.group(3))));
+                }
+            }
+            return new Parsed(kind, time, ranking);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static void putVarInt(ByteBuffer b, int v) {
+        long x = v & 0xFFFFFFFFL;
+        while ((x & ~0x7FL) != 0) {
+            b.put((byte) ((x & 0x7F) | 0x80));
+            x >>>= 7;
+        }
+        b.put((byte) x);
+    }
+
+    private static int varInt(ByteBuffer b) {
+        int v = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte x = b.get();
+            v |= (x & 0x7F) << shift;
+            if (x >= 0) return v;
+        }
+    }
+
+    private static int zigzag(int v) { return (v << 1) ^ (v >> 31); }
+    private static int unzigzag(int v) { return (v >>> 1) ^ -(v & 1); }
+}
@@ -1,11 +1,12 @@
 package Objects;
 
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.Random;
 
 public class Robot implements Runnable {
     private final Board board;
     private final Booster type;
     private final long tmin, tmax;
+    private final Random rnd = new Random();
 
     public Robot(Board board, Booster type, long tmin, long tmax) {
         this.board = board;
@@ -14,32 +15,61 @@ public class Robot implements Runnable {
         this.tmax = tmax;
     }
 
+    public Booster type() { return type; }
+
+    // Fija la semilla de montos y esperas (simulaciones reproducibles)
+    public void reseed(long seed) { rnd.setSeed(seed); }
+
+    // Intenta colocar un booster de su tipo
+    public boolean attempt() {
+        if (!FlightEvents.ROBOT_PLACEMENT.isEnabled()) return place();
+        FlightEvents.RobotPlacement event = new FlightEvents.RobotPlacement();
+        event.begin();
+        boolean placed = place();
+        event.end();
+        if (event.shouldCommit()) {
+            event.booster = type.name();
+            event.placed = placed;
+            event.commit();
+        }
+        return placed;
+    }
+
+    private boolean place() {
+        boolean placed = false;
+        if (type == Booster.COIN) {
+            int amount = new int[]{1,2,5,10}[rnd.nextInt(4)];
+            placed = board.tryPlaceCoin(amount);
+        } else if (type == Booster.HEAL) {
+            placed = board.tryPlaceHeal();
+        } else if (type == Booster.POISON) {
+            placed = board.tryPlaceTrap();
+        }
+        GameMetrics m = board.metrics();
+        if (m != null) m.robot(type, placed);
+        return placed;
+    }
+
+    // ms hasta el próximo intento, o -1 si el robot terminó su trabajo
+    public long nextDelay(boolean placed) {
+        if (placed) return rnd.nextLong(tmin, tmax + 1);
+        boolean done = switch (type) {
+            case COIN -> false;
+            case HEAL -> true;
+            case POISON -> true;
+            default -> true;
+        };
+        return done ? -1 : 200;
+    }
+
     @Override
     public void run() {
         try {
             while (!Thread.currentThread().isInterrupted()) {
-                boolean placed = false;
-                if (type == Booster.COIN) {
-                    int amount = new int[]{1,2,5,10}[ThreadLocalRandom.current().nextInt(4)];
-                    placed = board.tryPlaceCoin(amount);
-                } else if (type == Booster.HEAL) {
-                    placed = board.tryPlaceHeal();
-                } else if (type == Booster.POISON) {
-                    placed = board.tryPlaceTrap();
-                }
-
-                if (!placed) {
-                    Thread.sleep(200);
-                    boolean done = switch (type) {
-                        case COIN -> false;
-                        case HEAL -> true;
-                        case POISON -> true;
-                        default -> true;
-                    };
-                    if (done) return;
-                } else {
-                    Thread.sleep(ThreadLocalRandom.current().nextLong(tmin, tmax + 1));
-                }
+                boolean placed = attempt();
+                long delay = nextDelay(placed);
+                if (delay < 0) return;
+                Thread.sleep(delay);
             }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
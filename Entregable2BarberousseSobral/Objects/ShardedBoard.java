@@ -0,0 +1,502 @@
+package Objects;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Phaser;
+
+// Tablero repartido en tiles rectangulares, cada uno con un único hilo dueño que
+// mueve a sus jugadores y pone sus boosters sin locks ni atómicos: solo ese hilo
+// escribe las celdas y contadores del tile. Un movimiento que cruza el borde se
+// manda como mensaje a la cola acotada del tile vecino:
+//   - el origen deja la celda de salida ocupada hasta la respuesta;
+//   - el destino acepta si la celda está libre (y aplica el booster) o rechaza;
+//   - con la respuesta el origen libera la celda o recupera al jugador.
+// Si la cola del vecino está llena el paso cuenta como bloqueado; nadie espera a
+// nadie, así que no hay interbloqueos.
+//
+// Los contadores globales (boosters, jugadores, movimientos) son la suma de los
+// de cada tile y se calculan recién cuando se piden, entre rondas.
+//
+// Mismo modelo de reloj virtual que Crowd. Para puntuar un paso hacia otro tile
+// se mira su borde tal como quedó al final de la ronda anterior (view, publicado
+// entre rondas por el Phaser); la decisión la toma igual el dueño de la celda.
+//
+// A diferencia de Crowd y --headless, este modo no es reproducible con la misma
+// semilla: el orden en que llegan los traspasos a la cola de un tile, y si la
+// cola estaba llena, dependen de cómo se intercalan los hilos.
+public class ShardedBoard implements AutoCloseable {
+    public static final int INBOX_CAPACITY = 1024;
+    private static final int MAX_STEPS = 6;
+    private static final int[][] DIRS = { {-1,0},{0,1},{1,0},{0,-1} };
+
+    // Traspaso de un jugador; la misma instancia vuelve como respuesta
+    private static final class Handoff {
+        static final byte MOVE = 0, ACCEPTED = 1, REJECTED = 2;
+        byte kind = MOVE;
+        final int id, from, to;
+        int lives, coins, stepsLeft;
+
+        Handoff(int id, int from, int to, int lives, int coins, int stepsLeft) {
+            this.id = id;
+            this.from = from;
+            this.to = to;
+            this.lives = lives;
+            this.coins = coins;
+            this.stepsLeft = stepsLeft;
+        }
+    }
+
+    private final int rows, cols, tilesR, tilesC, tileH, tileW;
+    private final long zmin, zmax;
+    private final Tile[] tiles;
+    private final Phaser rounds;
+    private volatile boolean stopping = false;
+    // Durante el cierre los tiles solo atienden mensajes pendientes
+    private volatile boolean settling = false;
+    private volatile int now = 0;
+    private long roundCount = 0;
+    // Borde de cada tile visto desde sus vecinos, por celda: -1 ocupada, si no el
+    // puntaje del contenido. En la ronda q se lee view[q & 1] y al terminarla
+    // cada tile escribe sus bordes en el otro, así lectores y escritor no se cruzan.
+    private final byte[][] view;
+
+    private final class Tile {
+        final int index, r0, c0, h, w;
+        final int[] occupant;
+        final byte[] content;
+        final int[] amount;
+        final ArrayBlockingQueue<Handoff> inbox = new ArrayBlockingQueue<>(INBOX_CAPACITY);
+        // Respuestas que no entraron en la cola del otro tile; se reintentan
+        final ArrayDeque<Handoff> retry = new ArrayDeque<>();
+        final Random rnd;
+
+        // Jugadores que están en este tile (swap-remove al salir)
+        int n = 0;
+        int[] ids = new int[16], cell = new int[16], lives = new int[16], coins = new int[16];
+        int[] wake = new int[16], stepsLeft = new int[16];
+        // Muertos en este tile: id y monedas, para el ranking
+        final List<int[]> dead = new ArrayList<>();
+
+        // Contadores propios; solo los escribe el dueño y se suman entre rondas
+        int coinCells, healItems, traps;
+        int targetCoins, targetHeals, targetTraps;
+        long moves, handoffs, rejected, blocked, deaths, inFlight;
+
+        Tile(int index, int r0, int c0, int h, int w, long seed) {
+            this.index = index;
+            this.r0 = r0;
+            this.c0 = c0;
+            this.h = h;
+            this.w = w;
+            this.occupant = new int[h * w];
+            this.content = new byte[h * w];
+            this.amount = new int[h * w];
+            this.rnd = new Random(seed);
+        }
+
+        int local(int cell) {
+            return (cell / cols - r0) * w + (cell % cols - c0);
+        }
+
+        void add(int id, int at, int l, int c, int steps, int wakeAt) {
+            if (n == ids.length) {
+                int cap = n * 2;
+                ids = Arrays.copyOf(ids, cap);
+                cell = Arrays.copyOf(cell, cap);
+                lives = Arrays.copyOf(lives, cap);
+                coins = Arrays.copyOf(coins, cap);
+                wake = Arrays.copyOf(wake, cap);
+                stepsLeft = Arrays.copyOf(stepsLeft, cap);
+            }
+            ids[n] = id;
+            cell[n] = at;
+            lives[n] = l;
+            coins[n] = c;
+            stepsLeft[n] = steps;
+            wake[n] = wakeAt;
+            n++;
+        }
+
+        void remove(int k) {
+            n--;
+            ids[k] = ids[n];
+            cell[k] = cell[n];
+            lives[k] = lives[n];
+            coins[k] = coins[n];
+            wake[k] = wake[n];
+            stepsLeft[k] = stepsLeft[n];
+        }
+
+        void round() {
+            drain();
+            if (!settling) {
+                int t = now;
+                // De atrás hacia adelante: el swap-remove trae a alguien ya procesado
+                for (int k = n - 1; k >= 0; k--) {
+                    if (wake[k] <= t) act(k, t);
+                }
+                refill();
+            }
+            drain();
+        }
+
+        // Un paso: elige el mejor vecino libre (monedas, vidas y algo de azar)
+        void act(int k, int t) {
+            byte[] shown = view[(int) (roundCount & 1)];
+            if (stepsLeft[k] == 0) stepsLeft[k] = 1 + rnd.nextInt(MAX_STEPS);
+            int from = cell[k], r = from / cols, c = from % cols;
+            int best = -1, bestScore = Integer.MIN_VALUE;
+            for (int[] d : DIRS) {
+                int nr = r + d[0], nc = c + d[1];
+                if (nr < 0 || nr >= rows || nc < 0 || nc >= cols) continue;
+                Tile owner = tileOf(nr, nc);
+                int v = owner == this ? seen(local(nr * cols + nc)) : shown[nr * cols + nc];
+                if (v < 0) continue;
+                int score = rnd.nextInt(12) + v;
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = nr * cols + nc;
+                }
+            }
+            if (best < 0) {
+                nap(k, t);
+                return;
+            }
+            Tile owner = tileOf(best / cols, best % cols);
+            if (owner != this) {
+                Handoff m = new Handoff(ids[k], from, best, lives[k], coins[k], stepsLeft[k] - 1);
+                if (!owner.inbox.offer(m)) {
+                    blocked++;
+                    nap(k, t);
+                    return;
+                }
+                handoffs++;
+                inFlight++;
+                // La celda de salida sigue ocupada hasta la respuesta
+                remove(k);
+                return;
+            }
+            int li = local(best);
+            if (occupant[li] != 0) {
+                blocked++;
+                nap(k, t);
+                return;
+            }
+            occupant[local(from)] = 0;
+            occupant[li] = ids[k];
+            cell[k] = best;
+            stepsLeft[k]--;
+            moves++;
+            lives[k] += consume(li, k);
+            if (lives[k] <= 0) {
+                die(k);
+                return;
+            }
+            wake[k] = t + (int) Player.STEP_MILLIS + (stepsLeft[k] > 0 ? 0 : napMillis());
+        }
+
+        // Cómo ve un vecino la celda li: -1 ocupada, si no lo que suma al puntaje.
+        // Las trampas no se ven, igual que en PathPlanner
+        int seen(int li) {
+            if (occupant[li] != 0) return -1;
+            int code = content[li];
+            if (code == 1) return Math.min(10, Math.max(1, amount[li]));
+            return code == 2 ? 3 : 0;
+        }
+
+        // Copia las celdas del borde en into, para la próxima ronda de los vecinos
+        void publish(byte[] into) {
+            for (int i = 0; i < h; i++) {
+                int row = (r0 + i) * cols + c0;
+                if (i == 0 || i == h - 1) {
+                    for (int j = 0; j < w; j++) into[row + j] = (byte) seen(i * w + j);
+                } else {
+                    into[row] = (byte) seen(i * w);
+                    into[row + w - 1] = (byte) seen(i * w + w - 1);
+                }
+            }
+        }
+
+        void nap(int k, int t) {
+            stepsLeft[k] = 0;
+            wake[k] = t + napMillis();
+        }
+
+        int napMillis() {
+            return (int) rnd.nextLong(zmin, zmax + 1);
+        }
+
+        // Aplica el booster de la celda al jugador k; devuelve el cambio de vidas
+        int consume(int li, int k) {
+            int code = content[li];
+            if (code == 0) return 0;
+            content[li] = 0;
+            if (code == 1) {
+                coinCells--;
+                coins[k] += amount[li];
+                amount[li] = 0;
+                return 0;
+            }
+            if (code == 2) {
+                healItems--;
+                return 1;
+            }
+            traps--;
+            return -1;
+        }
+
+        void die(int k) {
+            occupant[local(cell[k])] = 0;
+            dead.add(new int[] { ids[k], coins[k] });
+            deaths++;
+            remove(k);
+        }
+
+        void drain() {
+            for (int i = retry.size(); i > 0; i--) {
+                Handoff m = retry.poll();
+                if (!tileOf(m.from / cols, m.from % cols).inbox.offer(m)) retry.add(m);
+            }
+            Handoff m;
+            while ((m = inbox.poll()) != null) {
+                if (m.kind == Handoff.MOVE) arrive(m);
+                else settle(m);
+            }
+        }
+
+        // Llega un jugador desde otro tile
+        void arrive(Handoff m) {
+            int li = local(m.to);
+            if (occupant[li] != 0) {
+                m.kind = Handoff.REJECTED;
+            } else {
+                m.kind = Handoff.ACCEPTED;
+                occupant[li] = m.id;
+                add(m.id, m.to, m.lives, m.coins, m.stepsLeft, 0);
+                int k = n - 1;
+                moves++;
+                lives[k] += consume(li, k);
+                if (lives[k] <= 0) die(k);
+                else wake[k] = now + (int) Player.STEP_MILLIS + (stepsLeft[k] > 0 ? 0 : napMillis());
+            }
+            Tile origin = tileOf(m.from / cols, m.from % cols);
+            if (!origin.inbox.offer(m)) retry.add(m);
+        }
+
+        // Respuesta a un traspaso que salió de este tile
+        void settle(Handoff m) {
+            inFlight--;
+            int li = local(m.from);
+            if (m.kind == Handoff.ACCEPTED) {
+                if (occupant[li] == m.id) occupant[li] = 0;
+                return;
+            }
+            rejected++;
+            add(m.id, m.from, m.lives, m.coins, 0, now + napMillis());
+        }
+
+        // Repone boosters en celdas libres al azar, hasta la parte del objetivo de este tile
+        void refill() {
+            int budget = Math.max(1, h * w / 1000);
+            for (int i = 0; i < budget && coinCells < targetCoins; i++) if (place(1, 5)) coinCells++;
+            for (int i = 0; i < budget && healItems < targetHeals; i++) if (place(2, 0)) healItems++;
+            for (int i = 0; i < budget && traps < targetTraps; i++) if (place(3, 0)) traps++;
+        }
+
+        boolean place(int code, int coinsAmount) {
+            for (int tries = 0; tries < 8; tries++) {
+                int li = rnd.nextInt(h * w);
+                if (occupant[li] == 0 && content[li] == 0) {
+                    content[li] = (byte) code;
+                    amount[li] = coinsAmount;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void loop() {
+            while (true) {
+                rounds.arriveAndAwaitAdvance();
+                if (stopping) return;
+                round();
+                publish(view[(int) ((roundCount + 1) & 1)]);
+                rounds.arriveAndAwaitAdvance();
+            }
+        }
+    }
+
+    // Reparte el tablero en una grilla de tiles lo más cuadrada posible y coloca
+    // count jugadores al azar. Los objetivos de boosters son los de Board (10%
+    // monedas, 10% trampas) más healRatio de vidas, repartidos por superficie.
+    public ShardedBoard(int rows, int cols, int shards, int count, int initialLives,
+                        long zmin, long zmax, double healRatio, long seed) {
+        this.rows = rows;
+        this.cols = cols;
+        this.zmin = zmin;
+        this.zmax = zmax;
+        int k = Math.max(1, Math.min(shards, rows * cols));
+        int tr = (int) Math.floor(Math.sqrt(k));
+        while (k % tr != 0) tr--;
+        int wantR = Math.min(tr, rows), wantC = Math.min(k / tr, cols);
+        this.tileH = (rows + wantR - 1) / wantR;
+        this.tileW = (cols + wantC - 1) / wantC;
+        // Con el tamaño redondeado hacia arriba pueden sobrar filas o columnas de
+        // tiles (9 filas en 4 da 3+3+3+0): solo se crean los que tienen celdas
+        this.tilesR = (rows + tileH - 1) / tileH;
+        this.tilesC = (cols + tileW - 1) / tileW;
+
+        Random rnd = new Random(seed);
+        tiles = new Tile[tilesR * tilesC];
+        int[] areas = new int[tiles.length];
+        for (int i = 0; i < tilesR; i++) {
+            for (int j = 0; j < tilesC; j++) {
+                int r0 = i * tileH, c0 = j * tileW;
+                Tile t = new Tile(i * tilesC + j, r0, c0,
+                        Math.min(tileH, rows - r0), Math.min(tileW, cols - c0), rnd.nextLong());
+                areas[t.index] = t.h * t.w;
+                tiles[t.index] = t;
+            }
+        }
+
+        // Objetivos globales como en Board, repartidos entre tiles
+        long total = (long) rows * cols;
+        int[] coinsShare = spread((int) Math.floor(total * 0.10), areas, total);
+        int[] trapsShare = spread((int) Math.floor(total * 0.10), areas, total);
+        int[] healsShare = spread((int) Math.floor(total * healRatio), areas, total);
+        for (Tile t : tiles) {
+            t.targetCoins = coinsShare[t.index];
+            t.targetTraps = trapsShare[t.index];
+            t.targetHeals = healsShare[t.index];
+        }
+
+        if (count > total) {
+            throw new IllegalArgumentException("No entran " + count + " jugadores en un tablero de " + rows + "x" + cols);
+        }
+        for (int id = 1; id <= count; id++) {
+            int at = -1;
+            for (int tries = 0; tries < 64 && at < 0; tries++) {
+                int probe = (int) rnd.nextLong(total);
+                if (occupant(probe / cols, probe % cols) == 0) at = probe;
+            }
+            // Tablero casi lleno: la primera libre desde una celda al azar
+            for (long i = 0, start = rnd.nextLong(total); at < 0; i++) {
+                int probe = (int) ((start + i) % total);
+                if (occupant(probe / cols, probe % cols) == 0) at = probe;
+            }
+            Tile t = tileOf(at / cols, at % cols);
+            t.occupant[t.local(at)] = id;
+            t.add(id, at, initialLives, 0, 0, (int) rnd.nextLong(0, zmax + 1));
+        }
+        for (Tile t : tiles) {
+            while (t.coinCells < t.targetCoins && t.place(1, 5)) t.coinCells++;
+            while (t.healItems < t.targetHeals && t.place(2, 0)) t.healItems++;
+            while (t.traps < t.targetTraps && t.place(3, 0)) t.traps++;
+        }
+        view = new byte[2][(int) total];
+        for (Tile t : tiles) t.publish(view[0]);
+
+        rounds = new Phaser(tiles.length + 1);
+        for (Tile t : tiles) {
+            Thread th = new Thread(t::loop, "Tile-" + t.index);
+            th.setDaemon(true);
+            th.start();
+        }
+    }
+
+    // Reparte target en proporción a la superficie de cada tile por el método del
+    // mayor resto: cada uno recibe la parte entera y lo que falta va a los de
+    // mayor fracción, así la suma da target aunque los tiles sean chicos
+    static int[] spread(int target, int[] areas, long total) {
+        int[] share = new int[areas.length];
+        long[] rest = new long[areas.length];
+        int given = 0;
+        for (int i = 0; i < areas.length; i++) {
+            long q = (long) target * areas[i];
+            share[i] = (int) (q / total);
+            rest[i] = q % total;
+            given += share[i];
+        }
+        Integer[] order = new Integer[areas.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> rest[a] != rest[b] ? Long.compare(rest[b], rest[a]) : Integer.compare(a, b));
+        for (int i = 0; given < target; i++, given++) share[order[i]]++;
+        return share;
+    }
+
+    private Tile tileOf(int r, int c) {
+        return tiles[(r / tileH) * tilesC + c / tileW];
+    }
+
+    public int rows() { return rows; }
+    public int cols() { return cols; }
+    public int shards() { return tiles.length; }
+    public String layout() { return tilesR + "x" + tilesC + " tiles de " + tileH + "x" + tileW; }
+    public long now() { return now; }
+    public long rounds() { return roundCount; }
+
+    // Sumas de los contadores de cada tile; se leen entre rondas
+    public int players() { int s = 0; for (Tile t : tiles) s += t.n; return s + (int) inFlight(); }
+    public int coinCells() { int s = 0; for (Tile t : tiles) s += t.coinCells; return s; }
+    public int healItems() { int s = 0; for (Tile t : tiles) s += t.healItems; return s; }
+    public int traps() { int s = 0; for (Tile t : tiles) s += t.traps; return s; }
+    public long moves() { long s = 0; for (Tile t : tiles) s += t.moves; return s; }
+    public long handoffs() { long s = 0; for (Tile t : tiles) s += t.handoffs; return s; }
+    public long rejected() { long s = 0; for (Tile t : tiles) s += t.rejected; return s; }
+    // Pasos que no se dieron porque el destino estaba tomado o la cola llena
+    public long blocked() { long s = 0; for (Tile t : tiles) s += t.blocked; return s; }
+    private long inFlight() { long s = 0; for (Tile t : tiles) s += t.inFlight; return s; }
+
+    // Corre hasta durationMillis de tiempo virtual o hasta que quede uno vivo;
+    // al final deja que se resuelvan los traspasos pendientes.
+    public List<Crowd.Entry> run(long durationMillis) {
+        long end = now + durationMillis;
+        while (now < end && players() > 1) {
+            round();
+            now += (int) Player.STEP_MILLIS;
+        }
+        settling = true;
+        while (inFlight() > 0) round();
+        settling = false;
+        return top(10);
+    }
+
+    private void round() {
+        rounds.arriveAndAwaitAdvance();   // arranca la ronda
+        rounds.arriveAndAwaitAdvance();   // todos los tiles terminaron
+        roundCount++;
+    }
+
+    // Ranking con el criterio de Simulation.RANKING (vivos, monedas, vidas, id)
+    public List<Crowd.Entry> top(int k) {
+        List<Crowd.Entry> all = new ArrayList<>();
+        for (Tile t : tiles) {
+            for (int i = 0; i < t.n; i++) all.add(new Crowd.Entry(t.ids[i], t.coins[i], t.lives[i]));
+            for (int[] d : t.dead) all.add(new Crowd.Entry(d[0], d[1], 0));
+        }
+        all.sort((a, b) -> {
+            if ((a.lives() > 0) != (b.lives() > 0)) return a.lives() > 0 ? -1 : 1;
+            if (a.coins() != b.coins()) return Integer.compare(b.coins(), a.coins());
+            if (a.lives() != b.lives()) return Integer.compare(b.lives(), a.lives());
+            return Integer.compare(a.id(), b.id());
+        });
+        return all.subList(0, Math.min(k, all.size()));
+    }
+
+    // Ocupante de una celda (lectura sin sincronizar, para mostrar)
+    public int occupant(int r, int c) {
+        Tile t = tileOf(r, c);
+        return t.occupant[(r - t.r0) * t.w + (c - t.c0)];
+    }
+
+    @Override
+    public void close() {
+        if (stopping) return;
+        stopping = true;
+        rounds.arriveAndDeregister();
+    }
+}
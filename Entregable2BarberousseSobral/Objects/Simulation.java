@@ -0,0 +1,109 @@
+package Objects;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+// Motor de eventos discretos con reloj virtual: corre la misma lógica de Player,
+// Robot y Board que los hilos, pero en un solo hilo y sin Thread.sleep. Cada
+// espera se convierte en un evento con su instante; con la misma semilla la
+// partida se repite exactamente igual.
+public class Simulation {
+    private record Event(long time, long seq, Runnable action) {}
+
+    public static final Comparator<Player> RANKING = (a, b) -> {
+        int aliveA = a.lifes() > 0 ? 1 : 0;
+        int aliveB = b.lifes() > 0 ? 1 : 0;
+        if (aliveA != aliveB) return Integer.compare(aliveB, aliveA);
+        if (a.coins() != b.coins()) return Integer.compare(b.coins(), a.coins());
+        if (a.lifes() != b.lifes()) return Integer.compare(b.lifes(), a.lifes());
+        return a.name().compareToIgnoreCase(b.name());
+    };
+
+    private final Board board;
+    private final Random seeds;
+    private final PriorityQueue<Event> queue = new PriorityQueue<>(
+            Comparator.comparingLong(Event::time).thenComparingLong(Event::seq));
+    private final List<Player> players = new ArrayList<>();
+    private long seq = 0;
+    private long now = 0;
+    private long events = 0;
+    private int alive = 0;
+
+    public Simulation(Board board, long seed) {
+        this.board = board;
+        this.seeds = new Random(seed);
+        board.useRandom(new Random(seeds.nextLong()));
+    }
+
+    public long now() { return now; }
+    public long events() { return events; }
+    public List<Player> players() { return players; }
+
+    public void schedule(long delay, Runnable action) {
+        queue.add(new Event(now + Math.max(0, delay), seq++, action));
+    }
+
+    // El jugador debe estar ya colocado en el tablero
+    public void addPlayer(Player p) {
+        p.reseed(seeds.nextLong());
+        p.setVerbose(false);
+        players.add(p);
+        if (p.lifes() > 0) alive++;
+        schedule(0, () -> playerTurn(p));
+    }
+
+    public void addRobot(Robot robot) {
+        robot.reseed(seeds.nextLong());
+        schedule(0, () -> robotTick(robot));
+    }
+
+    private void playerTurn(Player p) {
+        if (!p.isActive()) {
+            p.finish();
+            return;
+        }
+        p.beginTurn();
+        if (p.hasPendingStep()) schedule(0, () -> playerStep(p));
+        else schedule(p.nextNap(), () -> playerTurn(p));
+    }
+
+    private void playerStep(Player p) {
+        p.step();
+        if (p.lifes() <= 0) alive--;
+        if (!p.isActive()) {
+            p.finish();
+            return;
+        }
+        if (p.hasPendingStep()) schedule(Player.STEP_MILLIS, () -> playerStep(p));
+        else schedule(Player.STEP_MILLIS + p.nextNap(), () -> playerTurn(p));
+    }
+
+    private void robotTick(Robot robot) {
+        long delay = robot.nextDelay(robot.attempt());
+        if (delay >= 0) schedule(delay, () -> robotTick(robot));
+    }
+
+    // Corre hasta durationMillis de tiempo virtual, o hasta que quede un solo
+    // jugador vivo, igual que el bucle de Main. Devuelve el ranking final.
+    public List<Player> run(long durationMillis) {
+        long end = now + durationMillis;
+        while (!queue.isEmpty() && queue.peek().time() <= end) {
+            Event e = queue.poll();
+            now = e.time();
+            e.action().run();
+            events++;
+            if (alive <= 1) break;
+        }
+        for (Player p : players) {
+            p.stopGracefully();
+            p.finish();
+        }
+        queue.clear();
+        List<Player> ranking = new ArrayList<>(players);
+        ranking.sort(RANKING);
+        return ranking;
+    }
+}
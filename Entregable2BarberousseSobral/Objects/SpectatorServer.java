@@ -0,0 +1,415 @@
+package Objects;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+// Servidor de espectadores: un solo hilo con un Selector NIO atiende a todas las
+// conexiones. Cada espectador nuevo recibe un cuadro clave con el tablero entero
+// y después, en cada tick, solo las celdas que cambiaron.
+//
+// Los deltas salen de las celdas que el Board marcó desde el tick anterior (un
+// DirtyCells propio), así un tick cuesta lo que cambió y no filas*columnas. La
+// foto completa (Board.snapshot, reusando la anterior) se toma solo en los ticks
+// con cuadro clave; ese tick arma el delta comparando la foto contra lo enviado.
+//
+// Cada cuadro se codifica una sola vez en un buffer directo compartido y cada
+// conexión lo envía con su propia vista (duplicate), sin copiar. Si un cliente
+// no terminó de recibir el cuadro anterior cuando llega el siguiente, se le
+// guarda solo lo que le faltaba de ese cuadro y se lo saltea hasta el próximo
+// cuadro clave: nunca se acumula más de un cuadro por cliente.
+//
+// Protocolo (big endian): cada cuadro es [int largo][contenido]
+//   'K' long cuadro, int filas, int columnas, celdas no vacías, jugadores en el tablero
+//   'D' long cuadro, celdas que cambiaron, jugadores que aparecen por primera vez
+// celdas: varint cantidad, por celda: varint salto, varint estado
+// jugadores: varint cantidad, por jugador: varint id, byte largo, nombre UTF-8
+// salto = celda - celda anterior del mismo cuadro (la primera, desde -1).
+// estado en zig-zag: 0 vacía, -id jugador, (monto << 2) | código de booster.
+public class SpectatorServer implements AutoCloseable {
+    public static final byte KEYFRAME = 'K';
+    public static final byte DELTA = 'D';
+    public static final long DEFAULT_TICK_MILLIS = 100;
+    public static final int DEFAULT_MAX_CLIENTS = 1024;
+
+    private static final class Client {
+        final SocketChannel channel;
+        final SelectionKey key;
+        // Lo que falta enviar: vista de un buffer compartido o el resto copiado en tail
+        ByteBuffer out;
+        ByteBuffer tail;
+        boolean needsKeyframe = true;
+
+        Client(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+    }
+
+    private final Board board;
+    private final long tickMillis;
+    private final int maxClients;
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final List<Client> clients = new ArrayList<>();
+    private final Thread thread;
+    private volatile boolean open = true;
+
+    // Último estado enviado por celda; los deltas se calculan contra esto
+    private final int[] sent;
+    private final DirtyCells changed;
+    private final IntConsumer changedCell = i -> addChange(i, state(i));
+    // Foto del último cuadro clave; se reusa en el siguiente
+    private BoardSnapshot snap;
+    private long frame = 0;
+    // Delta en armado: posición del contador, celdas y última celda escrita
+    private int deltaCountAt, deltaCount, deltaLast;
+    private ByteBuffer delta = ByteBuffer.allocateDirect(4096);
+    private ByteBuffer keyframe = ByteBuffer.allocateDirect(4096);
+    private final ByteBuffer readSink = ByteBuffer.allocate(256);
+    // Ids de jugador cuyo nombre ya salió en algún cuadro
+    private final BitSet named = new BitSet();
+    private final BitSet fresh = new BitSet();
+
+    private volatile int connected;
+    private volatile long frames, keyframes, skipped, bytesSent;
+
+    public SpectatorServer(Board board, int port) throws IOException {
+        this(board, port, DEFAULT_TICK_MILLIS, DEFAULT_MAX_CLIENTS);
+    }
+
+    // Escucha solo en localhost; con port = 0 elige un puerto libre
+    public SpectatorServer(Board board, int port, long tickMillis, int maxClients) throws IOException {
+        this.board = board;
+        this.tickMillis = Math.max(1, tickMillis);
+        this.maxClients = maxClients;
+        this.sent = new int[board.total()];
+        this.changed = board.watchChanges();
+        this.selector = Selector.open();
+        this.server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        this.thread = new Thread(this::loop, "Espectadores");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public int port() {
+        return server.socket().getLocalPort();
+    }
+
+    public int clients() { return connected; }
+    public long frames() { return frames; }
+    public long keyframes() { return keyframes; }
+    // Veces que un cliente lento quedó atrás y se lo mandó al próximo cuadro clave
+    public long skipped() { return skipped; }
+    public long bytesSent() { return bytesSent; }
+
+    private void loop() {
+        long nextTick = System.nanoTime();
+        try {
+            while (open) {
+                long wait = (nextTick - System.nanoTime()) / 1_000_000;
+                if (wait > 0) selector.select(wait);
+                else selector.selectNow();
+                for (SelectionKey key : selector.selectedKeys()) {
+                    if (!key.isValid()) continue;
+                    if (key.isAcceptable()) accept();
+                    else handle(key);
+                }
+                selector.selectedKeys().clear();
+                long now = System.nanoTime();
+                if (now - nextTick >= 0) {
+                    tick();
+                    nextTick += tickMillis * 1_000_000;
+                    // Si el tick se atrasó mucho no se intenta recuperar los perdidos
+                    if (nextTick - now < 0) nextTick = now + tickMillis * 1_000_000;
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Servidor de espectadores detenido: " + e.getMessage());
+        } finally {
+            for (Client cl : clients) closeQuietly(cl.channel);
+            clients.clear();
+            connected = 0;
+            closeQuietly(server);
+            try { selector.close(); } catch (IOException ignored) {}
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel ch;
+        while ((ch = server.accept()) != null) {
+            if (clients.size() >= maxClients) {
+                closeQuietly(ch);
+                continue;
+            }
+            ch.configureBlocking(false);
+            ch.socket().setTcpNoDelay(true);
+            SelectionKey key = ch.register(selector, SelectionKey.OP_READ);
+            Client cl = new Client(ch, key);
+            key.attach(cl);
+            clients.add(cl);
+        }
+        connected = clients.size();
+    }
+
+    private void handle(SelectionKey key) {
+        Client cl = (Client) key.attachment();
+        try {
+            if (key.isReadable()) {
+                // Los espectadores no mandan nada útil; solo se detecta el cierre
+                readSink.clear();
+                if (cl.channel.read(readSink) < 0) {
+                    drop(cl);
+                    return;
+                }
+            }
+            if (key.isValid() && key.isWritable()) flush(cl);
+        } catch (IOException e) {
+            drop(cl);
+        }
+    }
+
+    private void tick() {
+        frame++;
+
+        // Quien sigue con un cuadro a medias se queda con una copia de lo que le
+        // falta (los buffers compartidos se van a reescribir) y pierde los deltas
+        boolean wantKeyframe = false, wantDelta = false;
+        for (Client cl : clients) {
+            if (cl.out != null && cl.out != cl.tail) {
+                int rest = cl.out.remaining();
+                if (cl.tail == null || cl.tail.capacity() < rest) cl.tail = ByteBuffer.allocate(rest);
+                cl.tail.clear();
+                cl.tail.put(cl.out).flip();
+                cl.out = cl.tail;
+                if (!cl.needsKeyframe) skipped++;
+                cl.needsKeyframe = true;
+            }
+            if (cl.out == null) {
+                if (cl.needsKeyframe) wantKeyframe = true;
+                else wantDelta = true;
+            }
+        }
+
+        // Sin nadie esperando un delta ni un cuadro clave las marcas se dejan para
+        // después: el próximo cuadro clave compara el tablero entero igual
+        if (!wantKeyframe && !wantDelta) return;
+        int changes;
+        if (wantKeyframe) {
+            // Lo marcado hasta acá ya entra en la foto; lo que cambie después queda marcado
+            changed.clear();
+            snap = board.snapshot(snap);
+            changes = encodeDelta(true);
+            encodeKeyframe();
+        } else {
+            changes = encodeDelta(false);
+        }
+
+        int total = 0;
+        for (int i = clients.size() - 1; i >= 0; i--) {
+            Client cl = clients.get(i);
+            if (cl.out != null) continue;
+            if (cl.needsKeyframe) {
+                cl.out = keyframe.duplicate();
+                cl.needsKeyframe = false;
+            } else if (wantDelta && changes > 0) {
+                cl.out = delta.duplicate();
+            } else {
+                continue;
+            }
+            try {
+                flush(cl);
+                total++;
+            } catch (IOException e) {
+                drop(cl);
+            }
+        }
+        if (total > 0) frames++;
+        if (wantKeyframe) keyframes++;
+    }
+
+    private void flush(Client cl) throws IOException {
+        int n = cl.channel.write(cl.out);
+        if (n > 0) bytesSent += n;
+        if (cl.out.hasRemaining()) {
+            cl.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        } else {
+            cl.out = null;
+            cl.key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+
+    private void drop(Client cl) {
+        cl.key.cancel();
+        closeQuietly(cl.channel);
+        clients.remove(cl);
+        connected = clients.size();
+    }
+
+    // Estado de una celda tal como viaja por la red (antes del zig-zag)
+    private static int state(BoardSnapshot snap, int i) {
+        int id = snap.occupantAt(i);
+        if (id != 0) return -id;
+        int code = snap.contentCodeAt(i);
+        return code == 0 ? 0 : (snap.amountAt(i) << 2) | code;
+    }
+
+    // Lo mismo leído del tablero vivo, sin lock: si la lectura queda a medias
+    // la celda vuelve a marcarse con la escritura que la completa
+    private int state(int i) {
+        int id = board.occupantAt(i);
+        if (id != 0) return -id;
+        int code = PackedCellStore.code(board.contentAt(i));
+        return code == 0 ? 0 : (board.amountAt(i) << 2) | code;
+    }
+
+    // Con fromSnapshot compara la foto entera contra `sent`; si no, solo las
+    // celdas marcadas desde el tick anterior, en orden creciente
+    private int encodeDelta(boolean fromSnapshot) {
+        ByteBuffer buf = delta;
+        buf.clear();
+        buf.position(4);
+        buf.put(DELTA).putLong(frame);
+        deltaCountAt = buf.position();
+        // Lugar para un varint de hasta 5 bytes; se rellena al final
+        buf.position(deltaCountAt + 5);
+        deltaCount = 0;
+        deltaLast = -1;
+        fresh.clear();
+        if (fromSnapshot) {
+            for (int i = 0; i < sent.length; i++) addChange(i, state(snap, i));
+        } else {
+            changed.drain(changedCell);
+        }
+        buf = delta;
+        putPaddedVarint(buf, deltaCountAt, deltaCount);
+        // Jugadores que aparecen por primera vez
+        int countAt = buf.position();
+        buf = room(buf, 5);
+        buf.position(countAt + 5);
+        int players = 0;
+        for (int id = fresh.nextSetBit(0); id >= 0; id = fresh.nextSetBit(id + 1)) {
+            named.set(id);
+            buf = putPlayer(buf, id, fromSnapshot ? snap.playerById(id) : board.playerById(id));
+            players++;
+        }
+        putPaddedVarint(buf, countAt, players);
+        buf.putInt(0, buf.position() - 4);
+        buf.flip();
+        delta = buf;
+        return deltaCount;
+    }
+
+    private void addChange(int i, int s) {
+        if (s == sent[i]) return;
+        sent[i] = s;
+        if (s < 0 && !named.get(-s)) fresh.set(-s);
+        ByteBuffer buf = room(delta, 10);
+        putVarint(buf, i - deltaLast);
+        putVarint(buf, (s << 1) ^ (s >> 31));
+        delta = buf;
+        deltaLast = i;
+        deltaCount++;
+    }
+
+    // Se arma a partir de `sent`, que después del delta coincide con la foto:
+    // el cliente nuevo queda alineado con los que ya estaban
+    private void encodeKeyframe() {
+        int total = sent.length;
+        ByteBuffer buf = keyframe;
+        buf.clear();
+        buf.position(4);
+        buf.put(KEYFRAME).putLong(frame).putInt(snap.rows()).putInt(snap.cols());
+        int countAt = buf.position();
+        buf.position(countAt + 5);
+        int cells = 0, players = 0, last = -1;
+        for (int i = 0; i < total; i++) {
+            int s = sent[i];
+            if (s == 0) continue;
+            if (s < 0) players++;
+            buf = room(buf, 10);
+            putVarint(buf, i - last);
+            putVarint(buf, (s << 1) ^ (s >> 31));
+            last = i;
+            cells++;
+        }
+        putPaddedVarint(buf, countAt, cells);
+        buf = room(buf, 5);
+        putVarint(buf, players);
+        for (int i = 0; i < total; i++) {
+            if (sent[i] < 0) buf = putPlayer(buf, -sent[i], snap.playerById(-sent[i]));
+        }
+        buf.putInt(0, buf.position() - 4);
+        buf.flip();
+        keyframe = buf;
+    }
+
+    private ByteBuffer putPlayer(ByteBuffer buf, int id, Player p) {
+        byte[] name = p != null ? p.name().getBytes(StandardCharsets.UTF_8) : new byte[0];
+        int len = Math.min(255, name.length);
+        buf = room(buf, len + 6);
+        putVarint(buf, id);
+        buf.put((byte) len).put(name, 0, len);
+        return buf;
+    }
+
+    private static ByteBuffer room(ByteBuffer buf, int bytes) {
+        while (buf.remaining() < bytes) buf = grow(buf);
+        return buf;
+    }
+
+    // Duplica la capacidad conservando lo ya escrito (solo entre envíos, nunca
+    // mientras un cliente tiene una vista del buffer viejo)
+    private static ByteBuffer grow(ByteBuffer buf) {
+        ByteBuffer bigger = ByteBuffer.allocateDirect(buf.capacity() * 2);
+        buf.flip();
+        bigger.put(buf);
+        return bigger;
+    }
+
+    static void putVarint(ByteBuffer buf, int v) {
+        while ((v & ~0x7F) != 0) {
+            buf.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        buf.put((byte) v);
+    }
+
+    // Varint de 5 bytes fijos en una posición reservada
+    private static void putPaddedVarint(ByteBuffer buf, int at, int v) {
+        for (int k = 0; k < 4; k++) {
+            buf.put(at + k, (byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        buf.put(at + 4, (byte) v);
+    }
+
+    private static void closeQuietly(java.nio.channels.Channel ch) {
+        try { ch.close(); } catch (IOException ignored) {}
+    }
+
+    @Override
+    public void close() {
+        board.stopWatching(changed);
+        open = false;
+        selector.wakeup();
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package Objects;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+// Lado del espectador: lee los cuadros de un SpectatorServer y mantiene una
+// copia del tablero. Los deltas que llegan antes del primer cuadro clave se ignoran.
+public class SpectatorView {
+    private int rows, cols;
+    private int[] cells = new int[0];
+    private final Map<Integer, String> names = new HashMap<>();
+    private long frame = -1;
+    private long keyframes, deltas;
+
+    public int rows() { return rows; }
+    public int cols() { return cols; }
+    public long frame() { return frame; }
+    public long keyframes() { return keyframes; }
+    public long deltas() { return deltas; }
+    public boolean ready() { return frame >= 0; }
+
+    // Estado de la celda con la misma codificación que el servidor
+    public int state(int r, int c) { return cells[r * cols + c]; }
+    public String name(int id) { return names.get(id); }
+
+    // Lee y aplica un cuadro. Devuelve false si el servidor cerró la conexión.
+    public boolean read(DataInputStream in) throws IOException {
+        int len;
+        try {
+            len = in.readInt();
+        } catch (EOFException e) {
+            return false;
+        }
+        byte[] payload = new byte[len];
+        in.readFully(payload);
+        apply(payload);
+        return true;
+    }
+
+    void apply(byte[] p) {
+        int[] pos = { 0 };
+        byte type = p[pos[0]++];
+        long n = 0;
+        for (int k = 0; k < 8; k++) n = (n << 8) | (p[pos[0]++] & 0xFF);
+        if (type == SpectatorServer.KEYFRAME) {
+            rows = readInt(p, pos);
+            cols = readInt(p, pos);
+            if (cells.length != rows * cols) cells = new int[rows * cols];
+            else java.util.Arrays.fill(cells, 0);
+            names.clear();
+            keyframes++;
+        } else if (frame < 0) {
+            return;
+        } else {
+            deltas++;
+        }
+        int count = varint(p, pos), cell = -1;
+        for (int k = 0; k < count; k++) {
+            cell += varint(p, pos);
+            int z = varint(p, pos);
+            cells[cell] = (z >>> 1) ^ -(z & 1);
+        }
+        int players = varint(p, pos);
+        for (int k = 0; k < players; k++) {
+            int id = varint(p, pos);
+            int len = p[pos[0]++] & 0xFF;
+            names.put(id, new String(p, pos[0], len, StandardCharsets.UTF_8));
+            pos[0] += len;
+        }
+        frame = n;
+    }
+
+    // Mismo formato que Main.printBoard, sin colores
+    public String render() {
+        StringBuilder sb = new StringBuilder(rows * (cols * 5 + 1));
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                int s = cells[i * cols + j];
+                if (s < 0) {
+                    String name = names.get(-s);
+                    String initials = name != null ? initials(name) : String.format("%2d", -s % 100);
+                    sb.append('|').append(initials).append('|');
+                } else {
+                    Booster b = PackedCellStore.fromCode(s & 3);
+                    if (b == Booster.HEAL) sb.append("|++|");
+                    else if (b == Booster.COIN) sb.append("|$$|");
+                    else sb.append("|  |");
+                }
+                sb.append(' ');
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static String initials(String name) {
+        String[] words = name.trim().split("\\s+");
+        if (words.length >= 2) return (words[0].charAt(0) + "" + words[1].charAt(0)).toUpperCase();
+        if (words[0].length() >= 2) return words[0].substring(0, 2).toUpperCase();
+        return (words[0] + " ").toUpperCase();
+    }
+
+    private static int readInt(byte[] p, int[] pos) {
+        int v = 0;
+        for (int k = 0; k < 4; k++) v = (v << 8) | (p[pos[0]++] & 0xFF);
+        return v;
+    }
+
+    private static int varint(byte[] p, int[] pos) {
+        int v = 0, shift = 0;
+        byte b;
+        do {
+            b = p[pos[0]++];
+            v |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return v;
+    }
+}
@@ -0,0 +1,41 @@
+package Objects;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+// Tabla fija de locks: la celda i usa el lock i % stripes.
+// Con stripes == cantidad de celdas equivale a un lock por celda.
+class StripedLocks {
+    // ReentrantLock (16) + NonfairSync (32)
+    private static final long BYTES_PER_LOCK = 48;
+    // + 7 longs de relleno para que dos locks no compartan línea de caché
+    private static final long BYTES_PER_PADDED_LOCK = BYTES_PER_LOCK + 56;
+
+    @SuppressWarnings("unused")
+    private static final class PaddedLock extends ReentrantLock {
+        private static final long serialVersionUID = 1L;
+        long p1, p2, p3, p4, p5, p6, p7;
+    }
+
+    private final ReentrantLock[] locks;
+    private final boolean padded;
+
+    StripedLocks(int stripes, boolean padded) {
+        this.locks = new ReentrantLock[Math.max(1, stripes)];
+        this.padded = padded;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = padded ? new PaddedLock() : new ReentrantLock();
+        }
+    }
+
+    int stripes() { return locks.length; }
+
+    int stripe(int cell) { return cell % locks.length; }
+
+    ReentrantLock lock(int cell) { return locks[stripe(cell)]; }
+
+    ReentrantLock lockAt(int stripe) { return locks[stripe]; }
+
+    long bytes() {
+        return locks.length * (padded ? BYTES_PER_PADDED_LOCK : BYTES_PER_LOCK) + 4L * locks.length;
+    }
+}
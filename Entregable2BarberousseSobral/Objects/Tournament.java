@@ -0,0 +1,250 @@
+package Objects;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Corre muchas partidas independientes (Simulation, reloj virtual) sobre una
+// grilla de parámetros en un ForkJoinPool. Cada partida tiene su propio Board y
+// su semilla; lo único compartido es la cola hacia el hilo que escribe el archivo.
+//
+// Formato de la grilla, una clave por línea con valores separados por coma:
+//   N=10,20   T=60   M=2,4   Z=350-550,200-400   H=10   lives=2
+//   Y=800-1500 (monedas)   X=1000-1700 (vidas)   W=1200-1900 (trampas)
+//   games=1000   seed=1
+// H ausente = 10% del tablero, como en Main.
+public class Tournament {
+
+    public record GameParams(int n, int t, int m, long zmin, long zmax, int h, int lives,
+                             long ymin, long ymax, long xmin, long xmax, long wmin, long wmax) {}
+
+    // Estadísticas acumuladas de una configuración
+    private static final class Stats {
+        final GameParams params;
+        final LongAdder games = new LongAdder();
+        final LongAdder survivors = new LongAdder();
+        final LongAdder coins = new LongAdder();
+        final LongAdder winnerCoins = new LongAdder();
+        final LongAdder gameMillis = new LongAdder();
+        final AtomicIntegerArray winsBySlot;
+
+        Stats(GameParams params) {
+            this.params = params;
+            this.winsBySlot = new AtomicIntegerArray(params.m() + 1);
+        }
+    }
+
+    // Línea hacia el hilo escritor; END (sin texto) le indica que termine
+    private record Line(String text) {}
+    private static final Line END = new Line(null);
+
+    private final List<GameParams> grid;
+    private final int gamesPerConfig;
+    private final long seed;
+    private final List<Stats> stats = new ArrayList<>();
+    private final BlockingQueue<Line> lines = new LinkedBlockingQueue<>();
+    // Almacenamiento y locks de los tableros de cada partida (--storage, --stripes, --lockfree)
+    private volatile BoardConfig boardConfig = BoardConfig.defaults();
+    // Primer error del hilo que escribe el CSV; run() lo relanza
+    private volatile IOException writeFailure;
+
+    public Tournament(List<GameParams> grid, int gamesPerConfig, long seed) {
+        this.grid = grid;
+        this.gamesPerConfig = gamesPerConfig;
+        this.seed = seed;
+        for (GameParams p : grid) stats.add(new Stats(p));
+    }
+
+    public static Tournament fromGridFile(Path file) throws IOException {
+        Map<String, String[]> keys = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(file)) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] kv = line.split("=", 2);
+            if (kv.length < 2) throw new IllegalArgumentException("Línea inválida en la grilla: " + line);
+            keys.put(kv[0].trim(), kv[1].trim().split("\\s*,\\s*"));
+        }
+
+        List<GameParams> grid = new ArrayList<>();
+        for (String n : values(keys, "N", "10"))
+        for (String t : values(keys, "T", "60"))
+        for (String m : values(keys, "M", "3"))
+        for (String z : values(keys, "Z", "350-550"))
+        for (String h : values(keys, "H", "-1"))
+        for (String lives : values(keys, "lives", "2"))
+        for (String y : values(keys, "Y", "800-1500"))
+        for (String x : values(keys, "X", "1000-1700"))
+        for (String w : values(keys, "W", "1200-1900")) {
+            int size = Integer.parseInt(n);
+            int heals = Integer.parseInt(h) < 0 ? (int) Math.floor(size * size * 0.10) : Integer.parseInt(h);
+            long[] zr = range(z), yr = range(y), xr = range(x), wr = range(w);
+            grid.add(new GameParams(size, Integer.parseInt(t), Integer.parseInt(m), zr[0], zr[1], heals,
+                    Integer.parseInt(lives), yr[0], yr[1], xr[0], xr[1], wr[0], wr[1]));
+        }
+        int games = Integer.parseInt(values(keys, "games", "100")[0]);
+        long seed = Long.parseLong(values(keys, "seed", "1")[0]);
+        return new Tournament(grid, games, seed);
+    }
+
+    private static String[] values(Map<String, String[]> keys, String key, String dflt) {
+        return keys.getOrDefault(key, new String[] { dflt });
+    }
+
+    private static long[] range(String s) {
+        String[] ab = s.split("-");
+        long a = Long.parseLong(ab[0].trim());
+        long b = ab.length > 1 ? Long.parseLong(ab[1].trim()) : a;
+        return new long[] { a, Math.max(a, b) };
+    }
+
+    public void useBoardConfig(BoardConfig config) { this.boardConfig = config; }
+
+    public int totalGames() { return grid.size() * gamesPerConfig; }
+
+    // Semilla de la partida g, reproducible e independiente del orden de ejecución
+    private long gameSeed(long g) {
+        long z = seed + g * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private void playGame(int g) {
+        int config = g / gamesPerConfig;
+        GameParams p = grid.get(config);
+        long gs = gameSeed(g);
+
+        Board board = new Board(p.n(), p.n(), boardConfig);
+        board.setTargetHeals(p.h());
+        Simulation sim = new Simulation(board, gs);
+        for (int i = 1; i <= p.m(); i++) {
+            Player player = new Player("Jugador" + i, i, board, p.lives(), p.zmin(), p.zmax());
+            board.placePlayerAtRandom(player);
+            sim.addPlayer(player);
+        }
+        sim.addRobot(new Robot(board, Booster.COIN, p.ymin(), p.ymax()));
+        sim.addRobot(new Robot(board, Booster.HEAL, p.xmin(), p.xmax()));
+        sim.addRobot(new Robot(board, Booster.POISON, p.wmin(), p.wmax()));
+        List<Player> ranking = sim.run(p.t() * 1000L);
+
+        int survivors = 0, coins = 0;
+        for (Player pl : ranking) {
+            if (pl.lifes() > 0) survivors++;
+            coins += pl.coins();
+        }
+        Player winner = ranking.get(0);
+        int winnerSlot = winner.lifes() > 0 ? winner.idDigit() : 0;
+
+        Stats s = stats.get(config);
+        s.games.increment();
+        s.survivors.add(survivors);
+        s.coins.add(coins);
+        s.winnerCoins.add(winner.coins());
+        s.gameMillis.add(sim.now());
+        s.winsBySlot.incrementAndGet(winnerSlot);
+
+        lines.add(new Line(String.format("%d,%d,%d,%d,%d,%d,%d,%d%n",
+                config, g, gs, winnerSlot, winner.coins(), survivors, coins, sim.now())));
+    }
+
+    // Parte el rango de partidas a la mitad hasta llegar a bloques chicos
+    private final class Games extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private static final int LEAF = 4;
+        private final int from, to;
+
+        Games(int from, int to) { this.from = from; this.to = to; }
+
+        @Override
+        protected void compute() {
+            // Si ya no se puede escribir el CSV no tiene sentido seguir jugando
+            if (writeFailure != null) return;
+            if (to - from <= LEAF) {
+                for (int g = from; g < to; g++) playGame(g);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Games(from, mid), new Games(mid, to));
+        }
+    }
+
+    // Archivo del resumen por configuración: el de partidas con _resumen antes de la extensión
+    public static Path summaryPath(Path out) {
+        String name = out.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String summary = dot > 0 ? name.substring(0, dot) + "_resumen" + name.substring(dot) : name + "_resumen";
+        return out.resolveSibling(summary);
+    }
+
+    // Corre todas las partidas y va escribiendo una línea por partida terminada;
+    // al final escribe el resumen por configuración en summaryPath(out).
+    public void run(Path out, int parallelism) throws IOException, InterruptedException {
+        String header = "# config: " + grid.size() + ", partidas por config: " + gamesPerConfig + ", semilla: " + seed;
+        try (BufferedWriter w = Files.newBufferedWriter(out)) {
+            w.write(header);
+            w.newLine();
+            w.write("config,index,seed,winner_slot,winner_coins,survivors,total_coins,game_ms");
+            w.newLine();
+
+            Thread writer = new Thread(() -> {
+                try {
+                    for (Line line = lines.take(); line != END; line = lines.take()) {
+                        w.write(line.text());
+                    }
+                } catch (IOException e) {
+                    writeFailure = e;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "TournamentWriter");
+            writer.start();
+
+            ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+            try {
+                pool.invoke(new Games(0, totalGames()));
+            } finally {
+                pool.shutdown();
+                lines.add(END);
+                writer.join();
+            }
+            if (writeFailure != null) throw writeFailure;
+        }
+
+        try (BufferedWriter w = Files.newBufferedWriter(summaryPath(out))) {
+            w.write(header);
+            w.newLine();
+            w.write("config,N,T,M,Zmin,Zmax,H,games,win_rate_by_slot,avg_winner_coins,avg_coins,survival_rate,avg_game_ms");
+            w.newLine();
+            for (int c = 0; c < stats.size(); c++) {
+                w.write(summary(c));
+                w.newLine();
+            }
+        }
+    }
+
+    private String summary(int c) {
+        Stats s = stats.get(c);
+        GameParams p = s.params;
+        double games = Math.max(1, s.games.sum());
+        StringBuilder wins = new StringBuilder();
+        for (int slot = 0; slot <= p.m(); slot++) {
+            if (slot > 0) wins.append(' ');
+            wins.append(String.format("%.3f", s.winsBySlot.get(slot) / games));
+        }
+        return String.format("%d,%d,%d,%d,%d,%d,%d,%d,%s,%.2f,%.2f,%.3f,%.0f",
+                c, p.n(), p.t(), p.m(), p.zmin(), p.zmax(), p.h(), s.games.sum(), wins,
+                s.winnerCoins.sum() / games, s.coins.sum() / games,
+                s.survivors.sum() / (games * p.m()), s.gameMillis.sum() / games);
+    }
+}
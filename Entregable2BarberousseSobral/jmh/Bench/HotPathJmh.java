@@ -0,0 +1,166 @@
+package Bench;
+
+import Objects.*;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Los mismos caminos calientes que HotPathBenchmarks, con JMH. Cada método
+// devuelve su resultado para que JMH lo consuma y el JIT no lo elimine.
+// Uso: mvn -B -Pjmh package && java -jar target/benchmarks.jar HotPathJmh -prof gc
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class HotPathJmh {
+    private static final int[][] DIRS = { {-1,0},{0,1},{1,0},{0,-1} };
+
+    // Tablero con 1 jugador cada 25 celdas y boosters hasta los objetivos
+    static Board populated(int n, List<Player> players) {
+        Board board = new Board(n, n);
+        board.setTargetHeals(n * n / 10);
+        int count = Math.max(1, n * n / 25);
+        for (int i = 1; i <= count; i++) {
+            Player p = new Player("B" + i, i, board, 1, 0, 0);
+            board.placePlayerAtRandom(p);
+            players.add(p);
+        }
+        while (board.tryPlaceCoin(5)) {}
+        while (board.tryPlaceHeal()) {}
+        while (board.tryPlaceTrap()) {}
+        return board;
+    }
+
+    @State(Scope.Thread)
+    public static class Planner {
+        @Param({ "10", "50", "1000" })
+        public int n;
+        @Param({ "1", "3", "6" })
+        public int dice;
+
+        Board board;
+        Player player;
+        final PathPlanner planner = new PathPlanner();
+        final int[] out = new int[7];
+        final Random rnd = new Random(1);
+
+        @Setup(Level.Trial)
+        public void setup() {
+            List<Player> players = new ArrayList<>();
+            board = populated(n, players);
+            player = players.get(0);
+        }
+    }
+
+    @Benchmark
+    public int planCells(Planner s) {
+        return s.planner.planCells(s.player.row(), s.player.col(), s.board, s.dice, s.out, s.rnd);
+    }
+
+    // Tablero compartido por todos los hilos del benchmark (-t 1, 4, 64)
+    @State(Scope.Benchmark)
+    public static class Moves {
+        @Param({ "64" })
+        public int maxThreads;
+
+        Board board;
+        final List<Player> players = new ArrayList<>();
+
+        @Setup(Level.Trial)
+        public void setup() {
+            int side = Math.max(8, (int) Math.ceil(Math.sqrt(maxThreads * 4.0)));
+            board = new Board(side, side);
+            for (int i = 1; i <= maxThreads; i++) {
+                Player p = new Player("M" + i, i, board, 1, 0, 0);
+                board.placePlayerAtRandom(p);
+                players.add(p);
+            }
+        }
+    }
+
+    // Cada hilo mueve a su propio jugador
+    @State(Scope.Thread)
+    public static class Mover {
+        Player player;
+
+        @Setup(Level.Trial)
+        public void setup(Moves moves, org.openjdk.jmh.infra.ThreadParams params) {
+            player = moves.players.get(params.getThreadIndex() % moves.players.size());
+        }
+    }
+
+    @Benchmark
+    public Booster movePlayerSafe(Moves s, Mover m) {
+        Player p = m.player;
+        int[] d = DIRS[ThreadLocalRandom.current().nextInt(4)];
+        return s.board.movePlayerSafe(p.row(), p.col(), p.row() + d[0], p.col() + d[1], p);
+    }
+
+    @State(Scope.Thread)
+    public static class FreeCells {
+        @Param({ "10", "50", "95" })
+        public int occupiedPct;
+
+        Board board;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            int n = 200;
+            board = new Board(n, n);
+            int count = n * n * occupiedPct / 100;
+            for (int i = 1; i <= count; i++) board.placePlayerAtRandom(new Player("F" + i, i, board, 1, 0, 0));
+        }
+    }
+
+    @Benchmark
+    public Pos randomFreeCell(FreeCells s) {
+        return s.board.randomFreeCell();
+    }
+
+    @State(Scope.Thread)
+    public static class Render {
+        @Param({ "10", "50" })
+        public int n;
+
+        Board board;
+        MethodHandle printBoard;
+        PrintStream console;
+
+        @Setup(Level.Trial)
+        public void setup() throws Exception {
+            board = populated(n, new ArrayList<>());
+            // Main está en el paquete por defecto: se llega por reflexión
+            Method m = Class.forName("Main").getDeclaredMethod("printBoard", Board.class);
+            m.setAccessible(true);
+            printBoard = MethodHandles.lookup().unreflect(m).asType(MethodType.methodType(void.class, Board.class));
+            console = System.out;
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            System.setOut(console);
+        }
+    }
+
+    @Benchmark
+    public Board snapshotAndPrint(Render s) throws Throwable {
+        s.printBoard.invokeExact(s.board);
+        return s.board;
+    }
+
+    @Benchmark
+    public BoardSnapshot snapshot(Render s) {
+        return s.board.snapshot();
+    }
+}